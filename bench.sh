@@ -0,0 +1,18 @@
+#!/bin/bash
+
+# Headless benchmarks (no display needed)
+mkdir -p out out-bench
+
+# Compile the app, then the benchmarks against it
+javac -encoding UTF-8 -d out src/*.java
+javac -encoding UTF-8 -cp out -d out-bench bench/*.java
+
+# The first argument may name a suite in bench/; RenderBenchmark is the default
+SUITE=RenderBenchmark
+if [ -n "$1" ] && [ -f "bench/$1.java" ]; then
+    SUITE=$1
+    shift
+fi
+
+# Pass --csv for machine-readable output, or (for RenderBenchmark) a case name prefix to run a subset
+java -Djava.awt.headless=true -cp out:out-bench "$SUITE" "$@"
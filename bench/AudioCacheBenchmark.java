@@ -0,0 +1,113 @@
+import javax.sound.sampled.*;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Getting a track that needs converting ready to play, with and without the
+ * AudioCache.
+ *
+ * The track is 60 s at 22 kHz mono, so it has to be resampled to
+ * SoundBank.FORMAT. "convert" converts it into memory, as every start of
+ * the music used to. "cache/miss" converts it into an empty cache,
+ * "cache/hit-new-run" opens it from a filled cache with a fresh AudioCache
+ * (a later run of the game: hash the asset, map the cached file) and
+ * "cache/hit-same-run" opens it again from the same AudioCache. Reports the
+ * median time and bytes allocated per open. Run with
+ * ./bench.sh AudioCacheBenchmark, optionally with --csv.
+ */
+public class AudioCacheBenchmark {
+    private static final int TRACK_SECONDS = 60;
+    private static final int CONVERSIONS = 10;
+    private static final int HITS = 100;
+    private static final long MAX_BYTES = 256L * 1024 * 1024;
+
+    private record Result(String name, double millis, double bytesPerOpen) {}
+
+    private interface Case {
+        void run(int i) throws Exception;
+    }
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public static void main(String[] args) throws Exception {
+        boolean csv = args.length > 0 && args[0].equals("--csv");
+
+        Path dir = Files.createTempDirectory("audio-cache-bench");
+        File track = writeTrack(dir.resolve("track.wav").toFile());
+        URL url = track.toURI().toURL();
+
+        List<Result> results = new ArrayList<>();
+        try {
+            results.add(measure("convert", CONVERSIONS, i -> new SoundBank(null).load("track", url)));
+            results.add(measure("cache/miss", CONVERSIONS,
+                    i -> new AudioCache(dir.resolve("miss-" + i), MAX_BYTES).open(url)));
+            Path filled = dir.resolve("filled");
+            new AudioCache(filled, MAX_BYTES).open(url);
+            results.add(measure("cache/hit-new-run", HITS, i -> new AudioCache(filled, MAX_BYTES).open(url)));
+            AudioCache cache = new AudioCache(filled, MAX_BYTES);
+            cache.open(url);
+            results.add(measure("cache/hit-same-run", HITS, i -> cache.open(url)));
+        } finally {
+            try (Stream<Path> files = Files.walk(dir)) {
+                files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+            }
+        }
+        print(results, csv);
+    }
+
+    private static Result measure(String name, int repeats, Case c) throws Exception {
+        c.run(-1); // warm up
+
+        long[] times = new long[repeats];
+        long thread = Thread.currentThread().getId();
+        long bytesBefore = THREADS.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < repeats; i++) {
+            long start = System.nanoTime();
+            c.run(i);
+            times[i] = System.nanoTime() - start;
+        }
+        long bytes = THREADS.getThreadAllocatedBytes(thread) - bytesBefore;
+        Arrays.sort(times);
+        return new Result(name, times[repeats / 2] / 1e6, bytes / (double) repeats);
+    }
+
+    private static File writeTrack(File file) throws IOException {
+        AudioFormat format = new AudioFormat(22050f, 16, 1, true, false);
+        int frames = (int) format.getFrameRate() * TRACK_SECONDS;
+        byte[] samples = new byte[frames * 2];
+        for (int i = 0; i < frames; i++) {
+            int value = (int) (Math.sin(2 * Math.PI * 330 * i / format.getFrameRate()) * 12000);
+            samples[2 * i] = (byte) value;
+            samples[2 * i + 1] = (byte) (value >> 8);
+        }
+        AudioInputStream in = new AudioInputStream(new ByteArrayInputStream(samples), format, frames);
+        AudioSystem.write(in, AudioFileFormat.Type.WAVE, file);
+        return file;
+    }
+
+    private static void print(List<Result> results, boolean csv) {
+        if (csv) {
+            System.out.println("case,ms,bytes_per_open");
+            for (Result r : results) {
+                System.out.printf("%s,%.2f,%.0f%n", r.name(), r.millis(), r.bytesPerOpen());
+            }
+            return;
+        }
+
+        System.out.printf("%-22s %10s %14s%n", "Case", "ms", "bytes/open");
+        for (Result r : results) {
+            System.out.printf("%-22s %10.2f %14.0f%n", r.name(), r.millis(), r.bytesPerOpen());
+        }
+    }
+}
@@ -0,0 +1,119 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseListener;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checks that repainting a RoundedButton allocates nothing, headless.
+ *
+ * For each state the menu shows (and being selected, which looks like
+ * normal) it paints the button WARMUP_PAINTS times, then counts the bytes
+ * allocated on the painting thread over PAINTS more. The warm-up is long
+ * because Java2D's blit allocates a small temporary per drawImage until the
+ * JIT has compiled it away. It calls paintComponent, the button's own part
+ * of a repaint; JComponent.paint around it copies the Graphics for every
+ * component it paints, which is Swing's. The "text-changed" control sets new
+ * text before every paint, which has to render the image again, so it must
+ * allocate. Exits with 1 if a case is wrong. Run with
+ * ./bench.sh ButtonRepaintCheck, optionally with --csv.
+ */
+public class ButtonRepaintCheck {
+    private static final int WARMUP_PAINTS = 20000;
+    private static final int PAINTS = 1000;
+
+    private record Result(String name, double bytesPerPaint, boolean expectAllocation) {
+        boolean ok() {
+            return expectAllocation == (bytesPerPaint > 0);
+        }
+    }
+
+    private interface Paint {
+        void run(int i);
+    }
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public static void main(String[] args) throws Exception {
+        boolean csv = args.length > 0 && args[0].equals("--csv");
+
+        List<Result> results = new ArrayList<>();
+        SwingUtilities.invokeAndWait(() -> {
+            for (String state : new String[]{"normal", "hover", "pressed", "selected"}) {
+                RoundedButton button = button(state);
+                BufferedImage image = new BufferedImage(180, 55, BufferedImage.TYPE_INT_RGB);
+                Graphics2D g = image.createGraphics();
+                results.add(measure(state, false, i -> button.paintComponent(g)));
+            }
+
+            RoundedButton button = button("normal");
+            BufferedImage image = new BufferedImage(180, 55, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = image.createGraphics();
+            String[] texts = {"🎮 Start Game", "🎮 Start Game!"};
+            results.add(measure("text-changed", true, i -> {
+                button.setText(texts[i & 1]);
+                button.paintComponent(g);
+            }));
+        });
+        print(results, csv);
+        System.exit(results.stream().allMatch(Result::ok) ? 0 : 1);
+    }
+
+    private static RoundedButton button(String state) {
+        RoundedButton button = new RoundedButton("🎮 Start Game", Theme.GREEN, Theme.GREEN_DARK);
+        button.setFont(Theme.BUTTON_LARGE_FONT);
+        button.setForeground(Color.WHITE);
+        button.setSize(180, 55);
+        switch (state) {
+            case "hover" -> {
+                MouseEvent e = new MouseEvent(button, MouseEvent.MOUSE_ENTERED, 0, 0, 1, 1, 0, false);
+                for (MouseListener l : button.getMouseListeners()) {
+                    l.mouseEntered(e);
+                }
+            }
+            case "pressed" -> {
+                button.getModel().setArmed(true);
+                button.getModel().setPressed(true);
+            }
+            case "selected" -> button.setSelected(true);
+            default -> {
+            }
+        }
+        return button;
+    }
+
+    private static Result measure(String name, boolean expectAllocation, Paint paint) {
+        for (int i = 0; i < WARMUP_PAINTS; i++) {
+            paint.run(i);
+        }
+
+        long thread = Thread.currentThread().getId();
+        long bytesBefore = THREADS.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < PAINTS; i++) {
+            paint.run(i);
+        }
+        long bytes = THREADS.getThreadAllocatedBytes(thread) - bytesBefore;
+        return new Result(name, bytes / (double) PAINTS, expectAllocation);
+    }
+
+    private static void print(List<Result> results, boolean csv) {
+        if (csv) {
+            System.out.println("case,bytes_per_paint,expected,ok");
+            for (Result r : results) {
+                System.out.printf("%s,%.1f,%s,%b%n", r.name(), r.bytesPerPaint(),
+                        r.expectAllocation() ? "some" : "none", r.ok());
+            }
+            return;
+        }
+
+        System.out.printf("%-16s %14s %10s %6s%n", "Case", "bytes/paint", "expected", "ok");
+        for (Result r : results) {
+            System.out.printf("%-16s %14.1f %10s %6s%n", r.name(), r.bytesPerPaint(),
+                    r.expectAllocation() ? "some" : "none", r.ok() ? "yes" : "NO");
+        }
+    }
+}
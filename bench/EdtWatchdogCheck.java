@@ -0,0 +1,114 @@
+import java.awt.EventQueue;
+import java.awt.SecondaryLoop;
+import java.awt.Toolkit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+/**
+ * Checks what the EDT watchdog reports, headless.
+ *
+ * A modal dialog is a nested event loop inside the event that opened it;
+ * here a SecondaryLoop stands in for one. "modal/idle" keeps the loop open
+ * for half a second with only a few quick events arriving, which must not be
+ * reported. The other cases are controls that must be: a slow event inside
+ * the loop, slow work in the outer event after the loop ends, and a slow
+ * plain event. Counts the warnings the watchdog logs (stack samples and
+ * finished stalls) for each case and exits with 1 if any case is wrong.
+ * Run with ./bench.sh EdtWatchdogCheck, optionally with --csv.
+ */
+public class EdtWatchdogCheck {
+    private static final long BUDGET_MS = 16;
+    private static final long SLOW_MS = 80;
+
+    private record Result(String name, int reports, boolean expected) {
+        boolean ok() {
+            return expected == (reports > 0);
+        }
+    }
+
+    private static final AtomicInteger reports = new AtomicInteger();
+
+    public static void main(String[] args) throws Exception {
+        boolean csv = args.length > 0 && args[0].equals("--csv");
+
+        Logger log = Logger.getLogger("EdtWatchdog");
+        log.setUseParentHandlers(false);
+        log.addHandler(new Handler() {
+            @Override
+            public void publish(LogRecord record) {
+                reports.incrementAndGet();
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+        EdtWatchdog.start(BUDGET_MS);
+
+        List<Result> results = new ArrayList<>();
+        results.add(run("modal/idle", false, () -> nestedLoop(0, 0)));
+        results.add(run("modal/slow-event", true, () -> nestedLoop(SLOW_MS, 0)));
+        results.add(run("modal/slow-after-close", true, () -> nestedLoop(0, SLOW_MS)));
+        results.add(run("plain/slow-event", true, () -> sleep(SLOW_MS)));
+        print(results, csv);
+
+        System.exit(results.stream().allMatch(Result::ok) ? 0 : 1);
+    }
+
+    private static Result run(String name, boolean expected, Runnable onEdt) throws Exception {
+        reports.set(0);
+        EventQueue.invokeAndWait(onEdt);
+        Thread.sleep(10 * BUDGET_MS); // let the watcher poll and log
+        return new Result(name, reports.get(), expected);
+    }
+
+    // On the EDT: opens a nested loop that a helper thread feeds quick events (one of them slow if asked)
+    // for half a second and then closes; afterwards the outer event works for afterMillis
+    private static void nestedLoop(long slowEventMillis, long afterMillis) {
+        SecondaryLoop loop = Toolkit.getDefaultToolkit().getSystemEventQueue().createSecondaryLoop();
+        Thread feeder = new Thread(() -> {
+            for (int i = 0; i < 5; i++) {
+                sleep(100);
+                long work = i == 2 ? slowEventMillis : 1;
+                EventQueue.invokeLater(() -> sleep(work));
+            }
+            sleep(100);
+            loop.exit();
+        }, "feeder");
+        feeder.start();
+        loop.enter();
+        sleep(afterMillis);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void print(List<Result> results, boolean csv) {
+        if (csv) {
+            System.out.println("case,reports,expected,ok");
+            for (Result r : results) {
+                System.out.printf("%s,%d,%b,%b%n", r.name(), r.reports(), r.expected(), r.ok());
+            }
+            return;
+        }
+
+        System.out.printf("%-24s %8s %10s %6s%n", "Case", "reports", "expected", "ok");
+        for (Result r : results) {
+            System.out.printf("%-24s %8d %10s %6s%n", r.name(), r.reports(), r.expected() ? "yes" : "none",
+                    r.ok() ? "yes" : "NO");
+        }
+    }
+}
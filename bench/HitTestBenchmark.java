@@ -0,0 +1,290 @@
+import java.awt.*;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseListener;
+import java.awt.event.MouseMotionListener;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Hit-testing benchmarks for ShapeMatchingGame pieces at growing piece counts.
+ *
+ * Each board scatters N pieces of every shape type over a classroom-display
+ * sized area and answers "which piece is under this click" for a fixed set of
+ * random points, once by scanning every piece and once through a SpatialGrid.
+ * Both use the exact shape masks, so they find the same piece. Reports the
+ * average time and bytes allocated per lookup.
+ *
+ * The drag cases pick up a piece on a generated board and sweep it back and
+ * forth, handling each mouse event and painting the damaged area the way the
+ * board does. After a warm-up long enough for the JIT to settle, a drag step
+ * must allocate nothing; the run exits with 1 if one does.
+ *
+ * The double-press case picks up a piece, presses on another one without
+ * releasing (a second button, or a second finger on a touch screen) and drags:
+ * the first piece must stay in hand and the second where it was. A press that
+ * took the second piece would leave the first one unindexed mid-board, where it
+ * could never be matched. The run exits with 1 if that happens too. Run with
+ * ./bench.sh HitTestBenchmark, optionally with --csv.
+ */
+public class HitTestBenchmark {
+    private static final int[] PIECE_COUNTS = {6, 50, 200, 500, 1000};
+    private static final int BOARD_WIDTH = 1920;
+    private static final int BOARD_HEIGHT = 1080;
+    private static final int PIECE_SIZE = 70;
+    private static final int QUERIES = 4096;
+    private static final int WARMUP_ROUNDS = 200;
+    private static final int MEASURED_ROUNDS = 500;
+    private static final int[] DRAG_BOARDS = {BoardGenerator.CLASSIC_PIECES, 200};
+    private static final int DRAG_PATH = 120;
+    private static final int WARMUP_DRAG_STEPS = 20000;
+    private static final int MEASURED_DRAG_STEPS = 2000;
+
+    private record Result(String name, double nanosPerLookup, double bytesPerLookup) {}
+
+    private record DragResult(String name, double nanosPerStep, double bytesPerStep) {}
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    // Keeps the JIT from dropping the lookups
+    private static int sink;
+
+    public static void main(String[] args) {
+        boolean csv = args.length > 0 && args[0].equals("--csv");
+
+        List<Result> results = new ArrayList<>();
+        for (int count : PIECE_COUNTS) {
+            Random random = new Random(42);
+            ShapeMatchingGame.DraggableShape[] pieces = scatter(count, random);
+            int[] qx = new int[QUERIES];
+            int[] qy = new int[QUERIES];
+            for (int i = 0; i < QUERIES; i++) {
+                qx[i] = random.nextInt(BOARD_WIDTH);
+                qy[i] = random.nextInt(BOARD_HEIGHT);
+            }
+
+            SpatialGrid grid = new SpatialGrid(BOARD_WIDTH, BOARD_HEIGHT, PIECE_SIZE);
+            for (int i = 0; i < pieces.length; i++) {
+                grid.put(i, pieces[i].getX(), pieces[i].getY(), PIECE_SIZE, PIECE_SIZE);
+            }
+            int[] hits = new int[pieces.length];
+
+            verifySameAnswers(pieces, grid, hits, qx, qy);
+            results.add(measure("linear/" + count, () -> {
+                int found = 0;
+                for (int i = 0; i < QUERIES; i++) {
+                    found += linearLookup(pieces, qx[i], qy[i]);
+                }
+                return found;
+            }));
+            results.add(measure("grid/" + count, () -> {
+                int found = 0;
+                for (int i = 0; i < QUERIES; i++) {
+                    found += gridLookup(pieces, grid, hits, qx[i], qy[i]);
+                }
+                return found;
+            }));
+        }
+
+        List<DragResult> drags = new ArrayList<>();
+        for (int count : DRAG_BOARDS) {
+            drags.add(measureDrag(count));
+        }
+        boolean doublePressOk = doublePressKeepsHeldPiece();
+        print(results, drags, doublePressOk, csv);
+        System.exit(drags.stream().allMatch(d -> d.bytesPerStep() == 0) && doublePressOk ? 0 : 1);
+    }
+
+    private static boolean doublePressKeepsHeldPiece() {
+        BoardGenerator.Board layout = BoardGenerator.classic();
+        ShapeMatchingGame.GamePanel board = new ShapeMatchingGame.GamePanel(layout);
+        board.setSize(layout.width(), layout.height());
+        ShapeMatchingGame.DraggableShape held = layout.shapes()[0];
+        ShapeMatchingGame.DraggableShape other = layout.shapes()[1];
+        int heldX = held.getX();
+        int heldY = held.getY();
+        int otherX = other.getX();
+        int otherY = other.getY();
+
+        press(board, held, MouseEvent.BUTTON1);
+        press(board, other, MouseEvent.BUTTON3);
+        MouseEvent move = new MouseEvent(board, MouseEvent.MOUSE_DRAGGED, 0, 0, layout.width() / 2,
+                layout.height() / 2, 0, false, MouseEvent.BUTTON1);
+        for (MouseMotionListener l : board.getMouseMotionListeners()) {
+            l.mouseDragged(move);
+        }
+        boolean heldMoved = held.getX() != heldX || held.getY() != heldY;
+        boolean otherStayed = other.getX() == otherX && other.getY() == otherY;
+        return heldMoved && otherStayed;
+    }
+
+    private static void press(ShapeMatchingGame.GamePanel board, ShapeMatchingGame.DraggableShape shape,
+                              int button) {
+        MouseEvent press = new MouseEvent(board, MouseEvent.MOUSE_PRESSED, 0, 0,
+                shape.getX() + shape.getSize() / 2, shape.getY() + shape.getSize() / 2, 1, false, button);
+        for (MouseListener l : board.getMouseListeners()) {
+            l.mousePressed(press);
+        }
+    }
+
+    private static DragResult measureDrag(int count) {
+        BoardGenerator.Board layout = BoardGenerator.generate(count, BOARD_WIDTH, BOARD_HEIGHT, new Random(42));
+        ShapeMatchingGame.GamePanel board = new ShapeMatchingGame.GamePanel(layout);
+        board.setSize(BOARD_WIDTH, BOARD_HEIGHT);
+        Graphics2D screen = new BufferedImage(BOARD_WIDTH, BOARD_HEIGHT, BufferedImage.TYPE_INT_RGB).createGraphics();
+
+        // Grab the first piece by its center and sweep it to the right and back, events built up front
+        ShapeMatchingGame.DraggableShape first = layout.shapes()[0];
+        int startX = first.getX() + first.getSize() / 2;
+        int startY = first.getY() + first.getSize() / 2;
+        MouseEvent press = new MouseEvent(board, MouseEvent.MOUSE_PRESSED, 0, 0, startX, startY, 1, false,
+                MouseEvent.BUTTON1);
+        for (MouseListener l : board.getMouseListeners()) {
+            l.mousePressed(press);
+        }
+        MouseEvent[] moves = new MouseEvent[DRAG_PATH];
+        Rectangle[] bounds = new Rectangle[DRAG_PATH];
+        Graphics2D[] clipped = new Graphics2D[DRAG_PATH]; // setClip allocates, so clip each step's Graphics up front
+        int half = layout.pieceSize() / 2;
+        for (int i = 0; i < DRAG_PATH; i++) {
+            double t = (i < DRAG_PATH / 2 ? i : DRAG_PATH - 1 - i) / (DRAG_PATH / 2 - 1.0);
+            int x = (int) (startX + t * BOARD_WIDTH * 0.5);
+            int y = (int) (startY + Math.sin(t * Math.PI) * BOARD_HEIGHT * 0.2);
+            moves[i] = new MouseEvent(board, MouseEvent.MOUSE_DRAGGED, 0, 0, x, y, 0, false, MouseEvent.BUTTON1);
+            bounds[i] = new Rectangle(x - half - 2, y - half - 2, layout.pieceSize() + 6, layout.pieceSize() + 6);
+        }
+        for (int i = 0; i < DRAG_PATH; i++) {
+            // Where it was and is, like the board's repaint
+            Rectangle damage = bounds[i].union(bounds[(i + DRAG_PATH - 1) % DRAG_PATH]);
+            clipped[i] = (Graphics2D) screen.create();
+            clipped[i].clip(damage);
+        }
+        MouseMotionListener[] listeners = board.getMouseMotionListeners();
+
+        for (int i = 0; i < WARMUP_DRAG_STEPS; i++) {
+            dragStep(board, clipped, listeners, moves, i);
+        }
+        long thread = Thread.currentThread().getId();
+        long bytesBefore = THREADS.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_DRAG_STEPS; i++) {
+            dragStep(board, clipped, listeners, moves, i);
+        }
+        long elapsed = System.nanoTime() - start;
+        long bytes = THREADS.getThreadAllocatedBytes(thread) - bytesBefore;
+        return new DragResult("drag/" + count, elapsed / (double) MEASURED_DRAG_STEPS,
+                bytes / (double) MEASURED_DRAG_STEPS);
+    }
+
+    // One mouse event and the paint it causes; paintComponent is the board's own part of that paint
+    private static void dragStep(ShapeMatchingGame.GamePanel board, Graphics2D[] clipped,
+                                 MouseMotionListener[] listeners, MouseEvent[] moves, int step) {
+        int at = step % DRAG_PATH;
+        for (MouseMotionListener l : listeners) {
+            l.mouseDragged(moves[at]);
+        }
+        board.paintComponent(clipped[at]);
+    }
+
+    private static ShapeMatchingGame.DraggableShape[] scatter(int count, Random random) {
+        ShapeMatchingGame.ShapeType[] types = ShapeMatchingGame.ShapeType.values();
+        ShapeMatchingGame.DraggableShape[] pieces = new ShapeMatchingGame.DraggableShape[count];
+        for (int i = 0; i < count; i++) {
+            pieces[i] = new ShapeMatchingGame.DraggableShape(
+                    random.nextInt(BOARD_WIDTH - PIECE_SIZE), random.nextInt(BOARD_HEIGHT - PIECE_SIZE),
+                    types[i % types.length], Theme.CORAL);
+        }
+        return pieces;
+    }
+
+    // What the board did before: every piece, topmost (last) hit wins
+    private static int linearLookup(ShapeMatchingGame.DraggableShape[] pieces, int px, int py) {
+        for (int i = pieces.length - 1; i >= 0; i--) {
+            if (pieces[i].contains(px, py)) return i;
+        }
+        return -1;
+    }
+
+    private static int gridLookup(ShapeMatchingGame.DraggableShape[] pieces, SpatialGrid grid, int[] hits,
+                                  int px, int py) {
+        int found = -1;
+        int count = grid.query(px, py, hits);
+        for (int i = 0; i < count; i++) {
+            int candidate = hits[i];
+            if (candidate > found && pieces[candidate].contains(px, py)) {
+                found = candidate;
+            }
+        }
+        return found;
+    }
+
+    private static void verifySameAnswers(ShapeMatchingGame.DraggableShape[] pieces, SpatialGrid grid, int[] hits,
+                                          int[] qx, int[] qy) {
+        for (int i = 0; i < QUERIES; i++) {
+            int linear = linearLookup(pieces, qx[i], qy[i]);
+            int indexed = gridLookup(pieces, grid, hits, qx[i], qy[i]);
+            if (linear != indexed) {
+                throw new IllegalStateException("Grid found " + indexed + " but scan found " + linear
+                        + " at " + qx[i] + "," + qy[i]);
+            }
+        }
+    }
+
+    interface Round {
+        int run();
+    }
+
+    private static Result measure(String name, Round round) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            sink += round.run();
+        }
+
+        long thread = Thread.currentThread().getId();
+        long bytesBefore = THREADS.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            sink += round.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        long bytes = THREADS.getThreadAllocatedBytes(thread) - bytesBefore;
+
+        double lookups = (double) MEASURED_ROUNDS * QUERIES;
+        return new Result(name, elapsed / lookups, bytes / lookups);
+    }
+
+    private static void print(List<Result> results, List<DragResult> drags, boolean doublePressOk, boolean csv) {
+        if (csv) {
+            System.out.println("case,ns_per_lookup,bytes_per_lookup");
+            for (Result r : results) {
+                System.out.printf("%s,%.1f,%.2f%n", r.name(), r.nanosPerLookup(), r.bytesPerLookup());
+            }
+            System.out.println();
+            System.out.println("case,ns_per_step,bytes_per_step,ok");
+            for (DragResult d : drags) {
+                System.out.printf("%s,%.1f,%.2f,%b%n", d.name(), d.nanosPerStep(), d.bytesPerStep(),
+                        d.bytesPerStep() == 0);
+            }
+            System.out.println();
+            System.out.println("case,ok");
+            System.out.printf("double-press,%b%n", doublePressOk);
+            return;
+        }
+
+        System.out.printf("%-28s %14s %14s%n", "Case", "ns/lookup", "bytes/lookup");
+        for (Result r : results) {
+            System.out.printf("%-28s %14.1f %14.2f%n", r.name(), r.nanosPerLookup(), r.bytesPerLookup());
+        }
+        System.out.println();
+        System.out.printf("%-28s %14s %14s %6s%n", "Case", "ns/step", "bytes/step", "ok");
+        for (DragResult d : drags) {
+            System.out.printf("%-28s %14.1f %14.2f %6s%n", d.name(), d.nanosPerStep(), d.bytesPerStep(),
+                    d.bytesPerStep() == 0 ? "yes" : "NO");
+        }
+        System.out.println();
+        System.out.printf("%-28s %6s%n", "Case", "ok");
+        System.out.printf("%-28s %6s%n", "double-press", doublePressOk ? "yes" : "NO");
+    }
+}
@@ -0,0 +1,218 @@
+import javax.sound.sampled.*;
+import java.util.Arrays;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A SourceDataLine that records what is written to it instead of playing it.
+ *
+ * It drains its buffer at the real frame rate while started, so write()
+ * blocks exactly as long as it would on a sound card and a mixer thread
+ * writing to it runs at its real pace. The first recordSeconds of output are
+ * kept for inspection; later output is only counted. It also notes when the
+ * first non-silent buffer arrives after expectSound(), which is how the
+ * benchmarks measure how long a play command takes to reach the line.
+ */
+public class InMemoryLine implements SourceDataLine {
+    private final byte[] recording;
+    private int recorded = 0;
+
+    private AudioFormat format;
+    private int bufferSize;
+    private boolean open;
+    private volatile boolean running;
+    private long startNanos;
+    private long startConsumed; // bytes already drained when started
+    private long written = 0;
+    private volatile long soundNanos = 0;
+    private volatile boolean expectingSound = false;
+    private volatile boolean lastWriteSilent = true;
+
+    public InMemoryLine(double recordSeconds) {
+        recording = new byte[(int) (recordSeconds * SoundBank.FORMAT.getFrameRate()) * SoundBank.FORMAT.getFrameSize()];
+    }
+
+    /** Everything recorded so far, up to recordSeconds. */
+    public synchronized byte[] getRecording() {
+        return Arrays.copyOf(recording, recorded);
+    }
+
+    /** Forgets the last sound so the next non-silent write is timed. */
+    public void expectSound() {
+        soundNanos = 0;
+        expectingSound = true;
+    }
+
+    /** When the first non-silent write after expectSound() arrived, or 0 if none has yet. */
+    public long getSoundNanos() {
+        return soundNanos;
+    }
+
+    public boolean isLastWriteSilent() {
+        return lastWriteSilent;
+    }
+
+    @Override
+    public void open(AudioFormat format, int bufferSize) {
+        this.format = format;
+        this.bufferSize = bufferSize - bufferSize % format.getFrameSize();
+        open = true;
+    }
+
+    @Override
+    public void open(AudioFormat format) {
+        open(format, (int) format.getFrameRate() / 10 * format.getFrameSize());
+    }
+
+    @Override
+    public void open() {
+        open(SoundBank.FORMAT);
+    }
+
+    @Override
+    public int write(byte[] b, int off, int len) {
+        if (!open) throw new IllegalStateException("not open");
+        // Wait for the "sound card" to drain enough of the buffer
+        while (running && written + len - consumed() > bufferSize) {
+            long excess = written + len - consumed() - bufferSize;
+            LockSupport.parkNanos((long) (excess / (double) format.getFrameSize() / format.getFrameRate() * 1e9));
+        }
+
+        boolean silent = true;
+        for (int i = off; i < off + len; i++) {
+            if (b[i] != 0) {
+                silent = false;
+                break;
+            }
+        }
+        if (!silent && expectingSound) {
+            soundNanos = System.nanoTime();
+            expectingSound = false;
+        }
+        lastWriteSilent = silent;
+
+        synchronized (this) {
+            int keep = Math.min(len, recording.length - recorded);
+            System.arraycopy(b, off, recording, recorded, keep);
+            recorded += keep;
+        }
+        written += len;
+        return len;
+    }
+
+    private long consumed() {
+        if (!running) return startConsumed;
+        long frames = (long) ((System.nanoTime() - startNanos) / 1e9 * format.getFrameRate());
+        return Math.min(written, startConsumed + frames * format.getFrameSize());
+    }
+
+    @Override
+    public void start() {
+        if (running) return;
+        startConsumed = consumed();
+        startNanos = System.nanoTime();
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        startConsumed = consumed();
+        running = false;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        open = false;
+    }
+
+    @Override
+    public void drain() {
+        while (running && consumed() < written) {
+            LockSupport.parkNanos(1_000_000);
+        }
+    }
+
+    @Override
+    public void flush() {
+        startConsumed = written;
+        startNanos = System.nanoTime();
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public boolean isActive() {
+        return running;
+    }
+
+    @Override
+    public AudioFormat getFormat() {
+        return format;
+    }
+
+    @Override
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    @Override
+    public int available() {
+        return (int) (bufferSize - (written - consumed()));
+    }
+
+    @Override
+    public int getFramePosition() {
+        return (int) getLongFramePosition();
+    }
+
+    @Override
+    public long getLongFramePosition() {
+        return consumed() / format.getFrameSize();
+    }
+
+    @Override
+    public long getMicrosecondPosition() {
+        return (long) (getLongFramePosition() * 1e6 / format.getFrameRate());
+    }
+
+    @Override
+    public float getLevel() {
+        return AudioSystem.NOT_SPECIFIED;
+    }
+
+    @Override
+    public Line.Info getLineInfo() {
+        return new DataLine.Info(SourceDataLine.class, format);
+    }
+
+    @Override
+    public Control[] getControls() {
+        return new Control[0];
+    }
+
+    @Override
+    public boolean isControlSupported(Control.Type control) {
+        return false;
+    }
+
+    @Override
+    public Control getControl(Control.Type control) {
+        throw new IllegalArgumentException("no controls");
+    }
+
+    @Override
+    public void addLineListener(LineListener listener) {
+    }
+
+    @Override
+    public void removeLineListener(LineListener listener) {
+    }
+}
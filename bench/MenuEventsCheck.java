@@ -0,0 +1,182 @@
+import javax.swing.*;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts the EDT events an idle main menu costs, headless, against the
+ * per-component timers the shared clock replaced.
+ *
+ * "timers/baseline" runs the app's original setup: one Swing Timer per
+ * animation (the title's 50 ms pulse and the shapes' 100 ms drift), each
+ * repainting its component. "timers/same-rates" does the same at the rates
+ * the menu animates at now. Headless a repaint posts no paint event, so both
+ * undercount what the timers cost on screen.
+ *
+ * The menu case builds the animated layers the way GameFrame does (the
+ * gradient, the floating shapes holding the content, the pulsing title) in a
+ * stand-in window that counts as showing, so the AnimationClock ticks them
+ * as it would on screen. Headless there is nothing to paint into, so the
+ * regions the clock asks the shapes panel to paint are added up instead. An
+ * EventQueue pushed in front counts every event dispatched. "menu/idle" must
+ * cost at most MAX_SHARE of "timers/same-rates" (the same animations, one
+ * wake-up per frame instead of one per timer) and repaint less than half of
+ * the shapes panel, which holds the whole menu, per frame. "menu/hidden"
+ * hides the stand-in window, after which the clock must stop and the EDT
+ * stay quiet. Exits with 1 if a case is wrong. Run with
+ * ./bench.sh MenuEventsCheck, optionally with --csv.
+ */
+public class MenuEventsCheck {
+    private static final int WIDTH = 900;
+    private static final int HEIGHT = 770;
+    private static final int SECONDS = 3;
+    private static final int[] BASELINE_TIMERS_MS = {50, 100}; // title pulse, shapes drift
+    private static final double MAX_SHARE = 0.75;
+
+    private record Result(String name, double eventsPerSecond, double ticksPerSecond, double paintedPercent,
+                          boolean ok) {}
+
+    private static final AtomicInteger events = new AtomicInteger();
+
+    // The menu's shapes panel, adding up how much of it the clock repaints
+    private static class MeasuredShapesPanel extends FloatingShapesPanel {
+        long paintedPixels;
+
+        MeasuredShapesPanel() {
+            super(FloatingShapesPanel.DEFAULT_PARTICLES, 42);
+        }
+
+        @Override
+        public void paintImmediately(int x, int y, int w, int h) {
+            Rectangle region = new Rectangle(x, y, w, h).intersection(new Rectangle(getSize()));
+            if (!region.isEmpty()) paintedPixels += (long) region.width * region.height;
+            super.paintImmediately(x, y, w, h);
+        }
+    }
+
+    // Stands in for the window: showing while visible
+    private static class Stage extends JPanel {
+        @Override
+        public boolean isShowing() {
+            return isVisible() && isDisplayable();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        boolean csv = args.length > 0 && args[0].equals("--csv");
+
+        Toolkit.getDefaultToolkit().getSystemEventQueue().push(new EventQueue() {
+            @Override
+            protected void dispatchEvent(AWTEvent event) {
+                events.incrementAndGet();
+                super.dispatchEvent(event);
+            }
+        });
+
+        List<Result> results = new ArrayList<>();
+        results.add(measureTimers("timers/baseline", BASELINE_TIMERS_MS));
+
+        Stage stage = new Stage();
+        MeasuredShapesPanel shapes = new MeasuredShapesPanel();
+        Result sameRates = measureTimers("timers/same-rates", AnimatedTitleLabel.PULSE_MS, shapes.getDriftMs());
+        results.add(sameRates);
+
+        SwingUtilities.invokeAndWait(() -> {
+            GradientPanel background = new GradientPanel(Theme.PINK, Theme.PEACH);
+            background.setLayout(new BorderLayout());
+            background.add(shapes, BorderLayout.CENTER);
+
+            JPanel content = new JPanel();
+            content.setOpaque(false);
+            content.setLayout(new BoxLayout(content, BoxLayout.Y_AXIS));
+            content.setBorder(BorderFactory.createEmptyBorder(30, 50, 30, 50));
+            AnimatedTitleLabel title = new AnimatedTitleLabel("Play and Learn With Emy Girl");
+            title.setAlignmentX(Component.CENTER_ALIGNMENT);
+            content.add(title);
+            shapes.add(content, BorderLayout.CENTER);
+
+            stage.setLayout(new BorderLayout());
+            stage.add(background, BorderLayout.CENTER);
+            stage.setSize(WIDTH, HEIGHT);
+            stage.addNotify();
+            stage.validate();
+        });
+        Thread.sleep(500); // settle: the bubbles spawn on the first frame
+
+        Result idle = measure("menu/idle", shapes);
+        results.add(new Result(idle.name(), idle.eventsPerSecond(), idle.ticksPerSecond(), idle.paintedPercent(),
+                idle.eventsPerSecond() <= MAX_SHARE * sameRates.eventsPerSecond() && idle.paintedPercent() < 50));
+
+        SwingUtilities.invokeAndWait(() -> stage.setVisible(false));
+        Thread.sleep(100);
+        Result hidden = measure("menu/hidden", shapes);
+        boolean[] running = new boolean[1];
+        SwingUtilities.invokeAndWait(() -> running[0] = AnimationClock.getInstance().isRunning());
+        results.add(new Result(hidden.name(), hidden.eventsPerSecond(), hidden.ticksPerSecond(),
+                hidden.paintedPercent(), !running[0] && hidden.ticksPerSecond() == 0));
+
+        print(results, csv);
+        System.exit(results.stream().allMatch(Result::ok) ? 0 : 1);
+    }
+
+    // The old way: a Swing Timer per animation, each repainting its own component
+    private static Result measureTimers(String name, int... intervalsMs) throws Exception {
+        List<Timer> timers = new ArrayList<>();
+        SwingUtilities.invokeAndWait(() -> {
+            for (int ms : intervalsMs) {
+                JLabel view = new JLabel();
+                Timer timer = new Timer(ms, e -> view.repaint());
+                timer.start();
+                timers.add(timer);
+            }
+        });
+        int eventsBefore = events.get();
+        Thread.sleep(SECONDS * 1000L);
+        int eventCount = events.get() - eventsBefore - 1; // the invokeAndWait below
+        SwingUtilities.invokeAndWait(() -> timers.forEach(Timer::stop));
+        double perSecond = eventCount / (double) SECONDS;
+        return new Result(name, perSecond, perSecond, Double.NaN, true);
+    }
+
+    private static Result measure(String name, MeasuredShapesPanel shapes) throws Exception {
+        long[] before = new long[2];
+        SwingUtilities.invokeAndWait(() -> {
+            before[0] = AnimationClock.getInstance().getTickCount();
+            before[1] = shapes.paintedPixels;
+        });
+        int eventsBefore = events.get();
+        Thread.sleep(SECONDS * 1000L);
+        int eventCount = events.get() - eventsBefore - 1; // the invokeAndWait below
+
+        long[] after = new long[2];
+        SwingUtilities.invokeAndWait(() -> {
+            after[0] = AnimationClock.getInstance().getTickCount();
+            after[1] = shapes.paintedPixels;
+        });
+        long ticks = after[0] - before[0];
+        double panelPixels = (double) shapes.getWidth() * shapes.getHeight();
+        // Per frame: all the pieces painted in one tick add up
+        double painted = ticks == 0 ? 0 : 100.0 * (after[1] - before[1]) / ticks / panelPixels;
+        return new Result(name, eventCount / (double) SECONDS, ticks / (double) SECONDS, painted, true);
+    }
+
+    private static void print(List<Result> results, boolean csv) {
+        if (csv) {
+            System.out.println("case,events_per_s,ticks_per_s,painted_percent_per_frame,ok");
+            for (Result r : results) {
+                String painted = Double.isNaN(r.paintedPercent()) ? "" : String.format("%.2f", r.paintedPercent());
+                System.out.printf("%s,%.1f,%.1f,%s,%b%n", r.name(), r.eventsPerSecond(), r.ticksPerSecond(),
+                        painted, r.ok());
+            }
+            return;
+        }
+
+        System.out.printf("%-18s %10s %10s %16s %6s%n", "Case", "events/s", "ticks/s", "painted/frame", "ok");
+        for (Result r : results) {
+            String painted = Double.isNaN(r.paintedPercent()) ? "-" : String.format("%.2f%%", r.paintedPercent());
+            System.out.printf("%-18s %10.1f %10.1f %16s %6s%n", r.name(), r.eventsPerSecond(),
+                    r.ticksPerSecond(), painted, r.ok() ? "yes" : "NO");
+        }
+    }
+}
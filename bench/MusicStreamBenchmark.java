@@ -0,0 +1,144 @@
+import javax.sound.sampled.*;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Heap held by background music, decoded whole versus streamed.
+ *
+ * For tracks of growing length it writes a temporary WAV (22 kHz mono, so
+ * both paths also convert it), then measures the heap still in use after
+ * decoding it into memory the way the old Clip did, and after starting a
+ * MusicStream of it on a SoftwareMixer. The streamed track is also played
+ * past its end on an InMemoryLine and the recording compared with the track
+ * repeated back to back, to check the loop has no gap. Run with
+ * ./bench.sh MusicStreamBenchmark, optionally with --csv.
+ */
+public class MusicStreamBenchmark {
+    private static final int[] TRACK_SECONDS = {10, 60, 300};
+    private static final int BUFFER_FRAMES = 512;
+
+    private record Result(String name, double decodedMb, double streamedMb, String loop) {}
+
+    public static void main(String[] args) throws Exception {
+        boolean csv = args.length > 0 && args[0].equals("--csv");
+
+        List<Result> results = new ArrayList<>();
+        for (int seconds : TRACK_SECONDS) {
+            File wav = writeTrack(seconds);
+            try {
+                URL url = wav.toURI().toURL();
+                results.add(new Result("track/" + seconds + "s", decodedMb(url), streamedMb(url),
+                        seconds == TRACK_SECONDS[0] ? checkLoop(url, seconds) : "-"));
+            } finally {
+                wav.delete();
+            }
+        }
+        print(results, csv);
+    }
+
+    private static double decodedMb(URL url) throws Exception {
+        long before = usedHeap();
+        SoundBank bank = new SoundBank(null); // converted into memory, as the old Clip did
+        bank.load("track", url);
+        long after = usedHeap();
+        if (bank.size() != 1) throw new IllegalStateException("not loaded");
+        return (after - before) / 1e6;
+    }
+
+    private static double streamedMb(URL url) throws Exception {
+        InMemoryLine line = new InMemoryLine(0);
+        long before = usedHeap();
+        SoftwareMixer mixer = new SoftwareMixer(line, BUFFER_FRAMES);
+        MusicStream stream = new MusicStream(WavFile.open(url), MusicStream.DEFAULT_CHUNK_FRAMES, true);
+        mixer.playStream(stream, 1f, 0f);
+        Thread.sleep(500); // a few chunks played and refilled
+        long after = usedHeap();
+        mixer.close();
+        return (after - before) / 1e6;
+    }
+
+    // Plays the track one and a half times and compares it with the decoded track, frame by frame
+    private static String checkLoop(URL url, int seconds) throws Exception {
+        SoundBank bank = new SoundBank(null); // converted into memory, as the old Clip did
+        ByteBuffer pcm = bank.getPcm(bank.load("reference", url));
+        byte[] track = new byte[pcm.limit()];
+        pcm.get(0, track);
+
+        InMemoryLine line = new InMemoryLine(seconds * 1.6);
+        SoftwareMixer mixer = new SoftwareMixer(line, BUFFER_FRAMES);
+        MusicStream stream = new MusicStream(WavFile.open(url), MusicStream.DEFAULT_CHUNK_FRAMES, true);
+        // Hard left at full gain copies the left channel through unchanged
+        mixer.playStream(stream, 1f, -1f);
+        Thread.sleep((long) (seconds * 1500 + 500));
+        mixer.close();
+
+        byte[] recorded = line.getRecording();
+        int frameSize = SoundBank.FORMAT.getFrameSize();
+        // Line the recording up with the track by their first sound (a resampled track starts with a few zero frames)
+        int start = firstSound(recorded) - firstSound(track);
+        int compared = 0;
+        for (int at = start; at + frameSize <= recorded.length; at += frameSize, compared++) {
+            int expected = (at - start) % track.length;
+            if (recorded[at] != track[expected] || recorded[at + 1] != track[expected + 1]) {
+                return "gap at frame " + compared;
+            }
+        }
+        return compared * frameSize > track.length ? "gapless" : "too short";
+    }
+
+    private static int firstSound(byte[] pcm) {
+        int frameSize = SoundBank.FORMAT.getFrameSize();
+        int at = 0;
+        while (at < pcm.length && pcm[at] == 0 && pcm[at + 1] == 0) {
+            at += frameSize;
+        }
+        return at;
+    }
+
+    // A slowly sweeping tone; it doesn't start or end at zero, so a gap or a repeat shows
+    private static File writeTrack(int seconds) throws IOException {
+        AudioFormat format = new AudioFormat(22050f, 16, 1, true, false);
+        int frames = (int) format.getFrameRate() * seconds;
+        byte[] samples = new byte[frames * 2];
+        double phase = 0.3;
+        for (int i = 0; i < frames; i++) {
+            phase += 2 * Math.PI * (220 + 220.0 * i / frames) / format.getFrameRate();
+            int value = (int) (Math.sin(phase) * 12000) + 1;
+            samples[2 * i] = (byte) value;
+            samples[2 * i + 1] = (byte) (value >> 8);
+        }
+        File file = File.createTempFile("music-stream-bench", ".wav");
+        AudioInputStream in = new AudioInputStream(new ByteArrayInputStream(samples), format, frames);
+        AudioSystem.write(in, AudioFileFormat.Type.WAVE, file);
+        return file;
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static void print(List<Result> results, boolean csv) {
+        if (csv) {
+            System.out.println("case,decoded_mb,streamed_mb,loop");
+            for (Result r : results) {
+                System.out.printf("%s,%.2f,%.2f,%s%n", r.name(), r.decodedMb(), r.streamedMb(), r.loop());
+            }
+            return;
+        }
+
+        System.out.printf("%-16s %14s %14s %12s%n", "Case", "decoded MB", "streamed MB", "loop");
+        for (Result r : results) {
+            System.out.printf("%-16s %14.2f %14.2f %12s%n", r.name(), r.decodedMb(), r.streamedMb(), r.loop());
+        }
+    }
+}
@@ -0,0 +1,254 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseListener;
+import java.awt.event.MouseMotionListener;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Headless rendering benchmarks for the custom Swing components.
+ *
+ * Every case paints a component into an offscreen BufferedImage with
+ * java.awt.headless=true, so it runs on build boxes without a display. After a
+ * warmup each case reports the average time and the bytes allocated per frame
+ * (measured on the painting thread). Run with ./bench.sh, optionally passing
+ * --csv for machine-readable output or a case name prefix to run a subset.
+ */
+public class RenderBenchmark {
+    private static final int WARMUP_FRAMES = 300;
+    private static final int MEASURED_FRAMES = 1000;
+
+    interface Frame {
+        void render(Graphics2D g, int frame);
+    }
+
+    private record Case(String name, int width, int height, Frame frame) {}
+
+    private record Result(String name, double nanosPerFrame, double bytesPerFrame) {}
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+
+        boolean csv = false;
+        String filter = "";
+        for (String arg : args) {
+            if (arg.equals("--csv")) {
+                csv = true;
+            } else {
+                filter = arg;
+            }
+        }
+
+        List<Case> cases = new ArrayList<>();
+        addCases(cases);
+
+        List<Result> results = new ArrayList<>();
+        for (Case c : cases) {
+            if (!c.name().startsWith(filter)) continue;
+            // Swing components expect to be touched on the EDT
+            Result[] holder = new Result[1];
+            SwingUtilities.invokeAndWait(() -> holder[0] = measure(c));
+            results.add(holder[0]);
+        }
+        print(results, csv);
+        System.exit(0);
+    }
+
+    static void addCases(List<Case> cases) {
+        GradientPanel gradient = new GradientPanel(Theme.PINK, Theme.PEACH);
+        cases.add(new Case("GradientPanel", 900, 800, component(gradient, 900, 800)));
+
+        for (int count : new int[]{FloatingShapesPanel.DEFAULT_PARTICLES, 2000}) {
+            FloatingShapesPanel particles = new FloatingShapesPanel(count, 42);
+            cases.add(new Case("FloatingShapesPanel/" + count, 900, 800, component(particles, 900, 800)));
+        }
+
+        // A whole 60 fps frame: step every particle (asking the clock to repaint where each moved), then paint
+        for (int count : new int[]{2000, 5000}) {
+            FloatingShapesPanel particles = new FloatingShapesPanel(count, 42);
+            Frame paint = component(particles, 1920, 1080);
+            cases.add(new Case("FloatingShapesPanel/drift+paint/" + count, 1920, 1080, (g, frame) -> {
+                particles.drift(AnimationClock.FRAME_MS / 1000f);
+                paint.render(g, frame);
+            }));
+            cases.add(new Case("FloatingShapesPanel/drift/" + count, 1920, 1080,
+                    (g, frame) -> particles.drift(AnimationClock.FRAME_MS / 1000f)));
+        }
+
+        for (String state : new String[]{"normal", "hover", "pressed", "selected"}) {
+            RoundedButton button = new RoundedButton("🎮 Start Game", Theme.GREEN, Theme.GREEN_DARK);
+            button.setFont(Theme.BUTTON_LARGE_FONT);
+            button.setForeground(Color.WHITE);
+            setButtonState(button, state);
+            cases.add(new Case("RoundedButton/" + state, 180, 55, component(button, 180, 55)));
+        }
+
+        AnimatedTitleLabel title = new AnimatedTitleLabel("Play and Learn With Emy Girl");
+        cases.add(new Case("AnimatedTitleLabel", 600, 60, component(title, 600, 60)));
+
+        ShapeMatchingGame.GamePanel board = new ShapeMatchingGame.GamePanel(classicBoard());
+        int boardWidth = BoardGenerator.CLASSIC_WIDTH;
+        int boardHeight = BoardGenerator.CLASSIC_HEIGHT;
+        cases.add(new Case("GamePanel/idle", boardWidth, boardHeight, component(board, boardWidth, boardHeight)));
+
+        addDragCases(cases, "GamePanel", RenderBenchmark::classicBoard, true);
+
+        // Generated classroom boards, one per size teachers use
+        int[][] sizes = {{20, 1280, 720}, {50, 1600, 900}, {200, 1920, 1080}};
+        for (int[] size : sizes) {
+            String name = "Board/" + size[0];
+            BoardSupplier supplier = () -> BoardGenerator.generate(size[0], size[1], size[2], new Random(42));
+            ShapeMatchingGame.GamePanel generated = new ShapeMatchingGame.GamePanel(supplier.create());
+            cases.add(new Case(name + "/idle", size[1], size[2], component(generated, size[1], size[2])));
+            addDragCases(cases, name, supplier, false);
+        }
+    }
+
+    interface BoardSupplier {
+        BoardGenerator.Board create();
+    }
+
+    private static BoardGenerator.Board classicBoard() {
+        return BoardGenerator.generate(BoardGenerator.CLASSIC_PIECES, BoardGenerator.CLASSIC_WIDTH,
+                BoardGenerator.CLASSIC_HEIGHT, new Random(42));
+    }
+
+    // Replays a recorded drag across the board, painting either the whole panel or only the damage
+    private static void addDragCases(List<Case> cases, String prefix, BoardSupplier supplier, boolean withFull) {
+        for (boolean damageOnly : withFull ? new boolean[]{false, true} : new boolean[]{true}) {
+            BoardGenerator.Board layout = supplier.create();
+            int width = layout.width();
+            int height = layout.height();
+            int pieceSize = layout.pieceSize();
+            Point[] path = recordDragPath(layout);
+            ShapeMatchingGame.GamePanel board = new ShapeMatchingGame.GamePanel(layout);
+            board.setSize(width, height);
+            press(board, path[0]);
+            MouseEvent[] moves = new MouseEvent[path.length];
+            for (int i = 0; i < path.length; i++) {
+                moves[i] = dragEvent(board, path[i]);
+            }
+            Rectangle damage = new Rectangle();
+            Rectangle current = new Rectangle();
+            String name = prefix + (damageOnly ? "/drag-damage" : "/drag-full");
+            cases.add(new Case(name, width, height, (g, frame) -> {
+                Point from = path[frame % path.length];
+                int next = (frame + 1) % path.length;
+                dragBounds(from, pieceSize, damage);
+                dragBounds(path[next], pieceSize, current);
+                damage.add(current);
+                drag(board, moves[next]);
+                if (damageOnly) {
+                    g.setClip(damage);
+                }
+                board.paint(g);
+                g.setClip(null);
+            }));
+        }
+    }
+
+    private static Point[] recordDragPath(BoardGenerator.Board board) {
+        // Grab the first piece by its center and sweep it toward the targets and back
+        ShapeMatchingGame.DraggableShape first = board.shapes()[0];
+        int startX = first.getX() + first.getSize() / 2;
+        int startY = first.getY() + first.getSize() / 2;
+        double reach = board.width() * 0.58;
+        double lift = board.height() * 0.3;
+        Point[] path = new Point[120];
+        for (int i = 0; i < path.length; i++) {
+            double t = (i < 60 ? i : 119 - i) / 59.0;
+            path[i] = new Point((int) (startX + t * reach), (int) (startY + Math.sin(t * Math.PI) * lift));
+        }
+        return path;
+    }
+
+    // Same rectangle DraggableShape.getPaintBounds reports for a shape centered on the mouse
+    private static void dragBounds(Point mouse, int size, Rectangle out) {
+        out.setBounds(mouse.x - size / 2 - 2, mouse.y - size / 2 - 2, size + 6, size + 6);
+    }
+
+    private static void press(Component c, Point p) {
+        MouseEvent e = new MouseEvent(c, MouseEvent.MOUSE_PRESSED, 0, 0, p.x, p.y, 1, false, MouseEvent.BUTTON1);
+        for (MouseListener l : c.getMouseListeners()) {
+            l.mousePressed(e);
+        }
+    }
+
+    // Events are built up front so the replay itself doesn't show up in bytes/frame
+    private static MouseEvent dragEvent(Component c, Point p) {
+        return new MouseEvent(c, MouseEvent.MOUSE_DRAGGED, 0, 0, p.x, p.y, 0, false, MouseEvent.BUTTON1);
+    }
+
+    private static void drag(Component c, MouseEvent e) {
+        for (MouseMotionListener l : c.getMouseMotionListeners()) {
+            l.mouseDragged(e);
+        }
+    }
+
+    private static void setButtonState(RoundedButton button, String state) {
+        switch (state) {
+            case "hover" -> {
+                MouseEvent e = new MouseEvent(button, MouseEvent.MOUSE_ENTERED, 0, 0, 1, 1, 0, false);
+                for (MouseListener l : button.getMouseListeners()) {
+                    l.mouseEntered(e);
+                }
+            }
+            case "pressed" -> {
+                button.getModel().setArmed(true);
+                button.getModel().setPressed(true);
+            }
+            case "selected" -> button.setSelected(true);
+            default -> {
+            }
+        }
+    }
+
+    private static Frame component(JComponent component, int width, int height) {
+        component.setSize(width, height);
+        component.doLayout();
+        return (g, frame) -> component.paint(g);
+    }
+
+    private static Result measure(Case c) {
+        BufferedImage target = new BufferedImage(c.width(), c.height(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+
+        for (int i = 0; i < WARMUP_FRAMES; i++) {
+            c.frame().render(g, i);
+        }
+
+        long thread = Thread.currentThread().getId();
+        long bytesBefore = THREADS.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_FRAMES; i++) {
+            c.frame().render(g, WARMUP_FRAMES + i);
+        }
+        long elapsed = System.nanoTime() - start;
+        long bytes = THREADS.getThreadAllocatedBytes(thread) - bytesBefore;
+
+        g.dispose();
+        return new Result(c.name(), (double) elapsed / MEASURED_FRAMES, (double) bytes / MEASURED_FRAMES);
+    }
+
+    private static void print(List<Result> results, boolean csv) {
+        if (csv) {
+            System.out.println("case,ns_per_frame,bytes_per_frame");
+            for (Result r : results) {
+                System.out.printf("%s,%.0f,%.0f%n", r.name(), r.nanosPerFrame(), r.bytesPerFrame());
+            }
+            return;
+        }
+
+        System.out.printf("%-36s %14s %14s%n", "Case", "ns/frame", "bytes/frame");
+        for (Result r : results) {
+            System.out.printf("%-36s %14.0f %14.0f%n", r.name(), r.nanosPerFrame(), r.bytesPerFrame());
+        }
+    }
+}
@@ -0,0 +1,194 @@
+import javax.sound.sampled.*;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Sound effect trigger latency, measured without a sound card.
+ *
+ * "clip-per-call" is what SoundPlayer.playSoundEffect used to do on every
+ * call: decode the WAV, get a new Clip from a StandInMixer, open it and start
+ * it on the caller's thread. The stand-in never reports STOP, so its clips
+ * stay open, as they do when a real line drops that event. "mixer/<frames>"
+ * plays a pre-decoded effect on a SoftwareMixer writing to an InMemoryLine
+ * that drains at the real rate, so the time to the sound includes waiting for
+ * the mixer's next buffer. For each case it reports how long the caller is
+ * held up per trigger, the bytes the caller allocates, the time from trigger
+ * to the sound reaching the line (median and 99th percentile), how many
+ * lines are open afterwards and how many voices were stolen.
+ * "mixer/512/burst" fires more sounds at once than there are voices. Run with
+ * ./bench.sh SoundLatencyBenchmark, optionally with --csv.
+ */
+public class SoundLatencyBenchmark {
+    private static final float EFFECT_SECONDS = 0.25f;
+    private static final int WARMUP_TRIGGERS = 500;
+    private static final int MEASURED_TRIGGERS = 2000;
+    private static final int MIXER_TRIGGERS = 200; // each waits for a buffer or two in real time
+    private static final int BURST_TRIGGERS = 48;
+
+    private record Result(String name, double callerMicros, double bytesPerTrigger,
+                          double medianStartMicros, double p99StartMicros, int openLines, long stolen) {}
+
+    private static long lastCallerNanos;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public static void main(String[] args) throws Exception {
+        boolean csv = args.length > 0 && args[0].equals("--csv");
+        byte[][] effects = {wav(880), wav(220)};
+
+        List<Result> results = new ArrayList<>();
+        results.add(clipPerCall(effects));
+        results.add(softwareMixer(effects, SoftwareMixer.DEFAULT_BUFFER_FRAMES, false));
+        results.add(softwareMixer(effects, 128, false));
+        results.add(softwareMixer(effects, SoftwareMixer.DEFAULT_BUFFER_FRAMES, true));
+        print(results, csv);
+    }
+
+    private static Result clipPerCall(byte[][] effects) throws Exception {
+        StandInMixer mixer = new StandInMixer();
+        for (int i = 0; i < WARMUP_TRIGGERS; i++) {
+            openAndStart(mixer, effects[i % effects.length]);
+        }
+
+        long[] latencies = new long[MEASURED_TRIGGERS];
+        long thread = Thread.currentThread().getId();
+        long bytesBefore = THREADS.getThreadAllocatedBytes(thread);
+        long callerNanos = 0;
+        for (int i = 0; i < MEASURED_TRIGGERS; i++) {
+            long start = System.nanoTime();
+            openAndStart(mixer, effects[i % effects.length]);
+            long end = System.nanoTime();
+            callerNanos += end - start;
+            latencies[i] = mixer.getLastStartNanos() - start;
+        }
+        long bytes = THREADS.getThreadAllocatedBytes(thread) - bytesBefore;
+        return result("clip-per-call", callerNanos, bytes, latencies, mixer.getOpenLineCount(), 0);
+    }
+
+    private static void openAndStart(StandInMixer mixer, byte[] wav)
+            throws IOException, UnsupportedAudioFileException, LineUnavailableException {
+        AudioInputStream in = AudioSystem.getAudioInputStream(new ByteArrayInputStream(wav));
+        Clip clip = (Clip) mixer.getLine(new DataLine.Info(Clip.class, in.getFormat()));
+        clip.open(in);
+        clip.start();
+        clip.addLineListener(event -> {
+            if (event.getType() == LineEvent.Type.STOP) {
+                clip.close();
+            }
+        });
+    }
+
+    private static Result softwareMixer(byte[][] effects, int bufferFrames, boolean burst) throws Exception {
+        SoundBank bank = new SoundBank();
+        ByteBuffer[] pcm = new ByteBuffer[effects.length];
+        for (int i = 0; i < effects.length; i++) {
+            int id = bank.load("effect" + i, AudioSystem.getAudioInputStream(new ByteArrayInputStream(effects[i])));
+            pcm[i] = bank.getPcm(id);
+        }
+        InMemoryLine line = new InMemoryLine(0);
+        SoftwareMixer mixer = new SoftwareMixer(line, bufferFrames);
+
+        for (int i = 0; i < WARMUP_TRIGGERS / 10; i++) {
+            playAndWait(mixer, line, pcm[i % pcm.length]);
+        }
+
+        int triggers = burst ? BURST_TRIGGERS : MIXER_TRIGGERS;
+        long[] latencies = new long[triggers];
+        long thread = Thread.currentThread().getId();
+        long bytesBefore = THREADS.getThreadAllocatedBytes(thread);
+        long callerNanos = 0;
+        if (burst) {
+            // All at once; they reach the line together in the mixer's next buffer
+            line.expectSound();
+            long first = System.nanoTime();
+            for (int i = 0; i < triggers; i++) {
+                mixer.play(pcm[i % pcm.length], 0.5f, (i % 3) - 1, false);
+            }
+            callerNanos = System.nanoTime() - first;
+            while (line.getSoundNanos() == 0) {
+                Thread.onSpinWait();
+            }
+            Arrays.fill(latencies, line.getSoundNanos() - first);
+        } else {
+            for (int i = 0; i < triggers; i++) {
+                latencies[i] = playAndWait(mixer, line, pcm[i % pcm.length]);
+                callerNanos += lastCallerNanos;
+            }
+        }
+        long bytes = THREADS.getThreadAllocatedBytes(thread) - bytesBefore;
+
+        long stolen = mixer.getStolenCount();
+        int openLines = line.isOpen() ? 1 : 0;
+        mixer.close();
+        return result("mixer/" + bufferFrames + (burst ? "/burst" : ""), callerNanos, bytes,
+                latencies, openLines, stolen);
+    }
+
+    // Returns the time until the sound reaches the line and leaves the caller's time in lastCallerNanos.
+    // The sound is stopped again and the line left silent, so the next one can be timed.
+    private static long playAndWait(SoftwareMixer mixer, InMemoryLine line, ByteBuffer pcm) {
+        line.expectSound();
+        long start = System.nanoTime();
+        int handle = mixer.play(pcm, 1f, 0f, false);
+        lastCallerNanos = System.nanoTime() - start;
+        while (line.getSoundNanos() == 0) {
+            Thread.onSpinWait();
+        }
+        long latency = line.getSoundNanos() - start;
+
+        mixer.stop(handle);
+        while (mixer.getActiveVoiceCount() > 0 || !line.isLastWriteSilent()) {
+            Thread.onSpinWait();
+        }
+        return latency;
+    }
+
+    private static Result result(String name, long callerNanos, long bytes, long[] latencies, int openLines,
+                                 long stolen) {
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        double median = sorted[sorted.length / 2] / 1000.0;
+        double p99 = sorted[(int) (sorted.length * 0.99)] / 1000.0;
+        return new Result(name, callerNanos / 1000.0 / latencies.length, (double) bytes / latencies.length,
+                median, p99, openLines, stolen);
+    }
+
+    // A short sine beep as an 8-bit mono 22 kHz WAV, so loading it also needs a format conversion
+    private static byte[] wav(double frequency) throws IOException {
+        AudioFormat format = new AudioFormat(22050f, 8, 1, true, false);
+        int frames = (int) (format.getFrameRate() * EFFECT_SECONDS);
+        byte[] samples = new byte[frames];
+        for (int i = 0; i < frames; i++) {
+            samples[i] = (byte) (Math.sin(2 * Math.PI * frequency * i / format.getFrameRate()) * 100);
+        }
+        AudioInputStream in = new AudioInputStream(new ByteArrayInputStream(samples), format, frames);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        AudioSystem.write(in, AudioFileFormat.Type.WAVE, out);
+        return out.toByteArray();
+    }
+
+    private static void print(List<Result> results, boolean csv) {
+        if (csv) {
+            System.out.println("case,caller_us_per_trigger,bytes_per_trigger,median_start_us,p99_start_us,open_lines,stolen");
+            for (Result r : results) {
+                System.out.printf("%s,%.2f,%.1f,%.1f,%.1f,%d,%d%n", r.name(), r.callerMicros(), r.bytesPerTrigger(),
+                        r.medianStartMicros(), r.p99StartMicros(), r.openLines(), r.stolen());
+            }
+            return;
+        }
+
+        System.out.printf("%-20s %12s %12s %12s %12s %10s %8s%n",
+                "Case", "caller µs", "bytes", "start p50 µs", "start p99 µs", "open lines", "stolen");
+        for (Result r : results) {
+            System.out.printf("%-20s %12.2f %12.1f %12.1f %12.1f %10d %8d%n", r.name(), r.callerMicros(),
+                    r.bytesPerTrigger(), r.medianStartMicros(), r.p99StartMicros(), r.openLines(), r.stolen());
+        }
+    }
+}
@@ -0,0 +1,332 @@
+import javax.sound.sampled.*;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A Mixer that needs no sound card, for the audio benchmarks.
+ *
+ * Its Clips behave like real ones as far as the app can tell: open copies
+ * the PCM, start plays for as long as the sound lasts in wall-clock time,
+ * and nothing is ever heard. The mixer counts how many of its lines are open
+ * and logs when each clip was started, so a benchmark can measure how long
+ * a trigger takes to reach the line. Clips are expected to be started from
+ * one thread at a time.
+ */
+public class StandInMixer implements Mixer {
+    private static final Mixer.Info INFO = new Mixer.Info("Stand-in", "bench", "No sound card needed", "1") {};
+
+    private static final int START_LOG = 4096;
+
+    private final AtomicInteger openLines = new AtomicInteger();
+    private final AtomicLong starts = new AtomicLong();
+    private final AtomicLongArray startLog = new AtomicLongArray(START_LOG);
+
+    public int getOpenLineCount() {
+        return openLines.get();
+    }
+
+    public long getStartCount() {
+        return starts.get();
+    }
+
+    /** When the n-th clip start (counting from 0) happened; only the last START_LOG are kept. */
+    public long getStartNanos(long n) {
+        return startLog.get((int) (n % START_LOG));
+    }
+
+    public long getLastStartNanos() {
+        return getStartNanos(starts.get() - 1);
+    }
+
+    @Override
+    public Mixer.Info getMixerInfo() {
+        return INFO;
+    }
+
+    @Override
+    public Line.Info[] getSourceLineInfo() {
+        return new Line.Info[]{new Line.Info(Clip.class)};
+    }
+
+    @Override
+    public Line.Info[] getTargetLineInfo() {
+        return new Line.Info[0];
+    }
+
+    @Override
+    public Line.Info[] getSourceLineInfo(Line.Info info) {
+        return isLineSupported(info) ? getSourceLineInfo() : new Line.Info[0];
+    }
+
+    @Override
+    public Line.Info[] getTargetLineInfo(Line.Info info) {
+        return new Line.Info[0];
+    }
+
+    @Override
+    public boolean isLineSupported(Line.Info info) {
+        return info.getLineClass().isAssignableFrom(Clip.class);
+    }
+
+    @Override
+    public Line getLine(Line.Info info) throws LineUnavailableException {
+        if (!isLineSupported(info)) {
+            throw new IllegalArgumentException("not supported: " + info);
+        }
+        return new StandInClip();
+    }
+
+    @Override
+    public int getMaxLines(Line.Info info) {
+        return AudioSystem.NOT_SPECIFIED;
+    }
+
+    @Override
+    public Line[] getSourceLines() {
+        return new Line[0];
+    }
+
+    @Override
+    public Line[] getTargetLines() {
+        return new Line[0];
+    }
+
+    @Override
+    public void synchronize(Line[] lines, boolean maintainSync) {
+        throw new IllegalArgumentException("synchronization not supported");
+    }
+
+    @Override
+    public void unsynchronize(Line[] lines) {
+    }
+
+    @Override
+    public boolean isSynchronizationSupported(Line[] lines, boolean maintainSync) {
+        return false;
+    }
+
+    @Override
+    public Line.Info getLineInfo() {
+        return new Line.Info(Mixer.class);
+    }
+
+    @Override
+    public void open() {
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public boolean isOpen() {
+        return true;
+    }
+
+    @Override
+    public Control[] getControls() {
+        return new Control[0];
+    }
+
+    @Override
+    public boolean isControlSupported(Control.Type control) {
+        return false;
+    }
+
+    @Override
+    public Control getControl(Control.Type control) {
+        throw new IllegalArgumentException("no controls");
+    }
+
+    @Override
+    public void addLineListener(LineListener listener) {
+    }
+
+    @Override
+    public void removeLineListener(LineListener listener) {
+    }
+
+    /** Silent Clip that "plays" for the real duration of its data. */
+    private final class StandInClip implements Clip {
+        private AudioFormat format;
+        private byte[] data;
+        private int frames;
+        private boolean open;
+        private volatile boolean running;
+        private volatile long startNanos;
+        private long startFrame;
+
+        @Override
+        public void open(AudioFormat format, byte[] data, int offset, int bufferSize) throws LineUnavailableException {
+            if (open) throw new IllegalStateException("already open");
+            this.format = format;
+            this.data = new byte[bufferSize]; // a real Clip copies the sound into its own buffer too
+            System.arraycopy(data, offset, this.data, 0, bufferSize);
+            frames = bufferSize / format.getFrameSize();
+            open = true;
+            openLines.incrementAndGet();
+        }
+
+        @Override
+        public void open(AudioInputStream stream) throws LineUnavailableException, IOException {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            stream.transferTo(out);
+            byte[] bytes = out.toByteArray();
+            open(stream.getFormat(), bytes, 0, bytes.length);
+        }
+
+        @Override
+        public void open() throws LineUnavailableException {
+            throw new IllegalArgumentException("a clip needs data");
+        }
+
+        @Override
+        public void close() {
+            if (!open) return;
+            open = false;
+            running = false;
+            data = null;
+            openLines.decrementAndGet();
+        }
+
+        @Override
+        public boolean isOpen() {
+            return open;
+        }
+
+        @Override
+        public void start() {
+            if (!open) return;
+            startNanos = System.nanoTime();
+            running = true;
+            long n = starts.get();
+            startLog.set((int) (n % START_LOG), startNanos);
+            starts.set(n + 1); // after the log entry, so readers never see the count first
+        }
+
+        @Override
+        public void stop() {
+            running = false;
+        }
+
+        @Override
+        public boolean isRunning() {
+            if (running && playedFrames() >= frames - startFrame) {
+                running = false;
+            }
+            return running;
+        }
+
+        private long playedFrames() {
+            return (long) ((System.nanoTime() - startNanos) / 1e9 * format.getFrameRate());
+        }
+
+        @Override
+        public boolean isActive() {
+            return isRunning();
+        }
+
+        @Override
+        public void setFramePosition(int frames) {
+            startFrame = frames;
+        }
+
+        @Override
+        public void setMicrosecondPosition(long microseconds) {
+            startFrame = (long) (microseconds / 1e6 * format.getFrameRate());
+        }
+
+        @Override
+        public int getFramePosition() {
+            return (int) getLongFramePosition();
+        }
+
+        @Override
+        public long getLongFramePosition() {
+            return running ? Math.min(frames, startFrame + playedFrames()) : startFrame;
+        }
+
+        @Override
+        public long getMicrosecondPosition() {
+            return (long) (getLongFramePosition() * 1e6 / format.getFrameRate());
+        }
+
+        @Override
+        public int getFrameLength() {
+            return frames;
+        }
+
+        @Override
+        public long getMicrosecondLength() {
+            return (long) (frames * 1e6 / format.getFrameRate());
+        }
+
+        @Override
+        public void setLoopPoints(int start, int end) {
+        }
+
+        @Override
+        public void loop(int count) {
+            start();
+        }
+
+        @Override
+        public void drain() {
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public AudioFormat getFormat() {
+            return format;
+        }
+
+        @Override
+        public int getBufferSize() {
+            return data == null ? 0 : data.length;
+        }
+
+        @Override
+        public int available() {
+            return 0;
+        }
+
+        @Override
+        public float getLevel() {
+            return AudioSystem.NOT_SPECIFIED;
+        }
+
+        @Override
+        public Line.Info getLineInfo() {
+            return new DataLine.Info(Clip.class, format);
+        }
+
+        @Override
+        public Control[] getControls() {
+            return new Control[0];
+        }
+
+        @Override
+        public boolean isControlSupported(Control.Type control) {
+            return false;
+        }
+
+        @Override
+        public Control getControl(Control.Type control) {
+            throw new IllegalArgumentException("no controls");
+        }
+
+        @Override
+        public void addLineListener(LineListener listener) {
+        }
+
+        @Override
+        public void removeLineListener(LineListener listener) {
+        }
+    }
+}
@@ -0,0 +1,135 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checks that the title's cached glyph image paints the same pixels as
+ * drawing the text every frame did, headless.
+ *
+ * For each screen scale and pulse alpha it paints AnimatedTitleLabel into a
+ * scaled Graphics over the menu's pink, and a plain JLabel painted the way
+ * the title used to be (antialiased text drawn straight through an alpha
+ * composite) into another. Reports the largest difference of any color
+ * channel and how many pixels differ; compositing a premultiplied image may
+ * round a channel by a step or two, anything more means the cache is blurred
+ * or misplaced. Exits with 1 if a case is off by more than MAX_DIFFERENCE.
+ * Run with ./bench.sh TitleGlyphsCheck, optionally with --csv.
+ */
+public class TitleGlyphsCheck {
+    private static final String TEXT = "Play and Learn With Emy Girl";
+    private static final int WIDTH = 600;
+    private static final int HEIGHT = 60;
+    private static final double[] SCALES = {1, 1.25, 1.5, 2};
+    private static final float[] ALPHAS = {1f, 0.85f, 0.7f};
+    private static final int MAX_DIFFERENCE = 2;
+
+    private record Result(String name, int maxDifference, int differingPixels) {
+        boolean ok() {
+            return maxDifference <= MAX_DIFFERENCE;
+        }
+    }
+
+    // The title as it was painted before the glyph cache
+    private static class DirectTitle extends JLabel {
+        float alpha;
+
+        DirectTitle() {
+            super(TEXT, JLabel.CENTER);
+            setFont(Theme.TITLE_FONT);
+            setForeground(Theme.CORAL);
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            Graphics2D g2 = (Graphics2D) g.create();
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, alpha));
+            super.paintComponent(g2);
+            g2.dispose();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        boolean csv = args.length > 0 && args[0].equals("--csv");
+
+        List<Result> results = new ArrayList<>();
+        SwingUtilities.invokeAndWait(() -> {
+            try {
+                run(results);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        print(results, csv);
+        System.exit(results.stream().allMatch(Result::ok) ? 0 : 1);
+    }
+
+    private static void run(List<Result> results) throws ReflectiveOperationException {
+        AnimatedTitleLabel cached = new AnimatedTitleLabel(TEXT);
+        cached.setSize(WIDTH, HEIGHT);
+        DirectTitle direct = new DirectTitle();
+        direct.setSize(WIDTH, HEIGHT);
+
+        // The pulse only moves with the clock, so set it straight
+        Field alpha = AnimatedTitleLabel.class.getDeclaredField("alpha");
+        alpha.setAccessible(true);
+
+        for (double scale : SCALES) {
+            for (float a : ALPHAS) {
+                alpha.setFloat(cached, a);
+                direct.alpha = a;
+                BufferedImage expected = paint(direct, scale);
+                BufferedImage actual = paint(cached, scale);
+                results.add(compare(String.format("scale %.2f/alpha %.2f", scale, a), expected, actual));
+            }
+        }
+    }
+
+    private static BufferedImage paint(JComponent component, double scale) {
+        BufferedImage image = new BufferedImage((int) Math.ceil(WIDTH * scale), (int) Math.ceil(HEIGHT * scale),
+                BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(Theme.PINK);
+        g.fillRect(0, 0, image.getWidth(), image.getHeight());
+        g.scale(scale, scale);
+        component.paint(g);
+        g.dispose();
+        return image;
+    }
+
+    private static Result compare(String name, BufferedImage expected, BufferedImage actual) {
+        int max = 0;
+        int differing = 0;
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                int e = expected.getRGB(x, y);
+                int a = actual.getRGB(x, y);
+                if (e == a) continue;
+                differing++;
+                for (int shift = 0; shift < 24; shift += 8) {
+                    max = Math.max(max, Math.abs(((e >> shift) & 0xFF) - ((a >> shift) & 0xFF)));
+                }
+            }
+        }
+        return new Result(name, max, differing);
+    }
+
+    private static void print(List<Result> results, boolean csv) {
+        if (csv) {
+            System.out.println("case,max_difference,differing_pixels,ok");
+            for (Result r : results) {
+                System.out.printf("%s,%d,%d,%b%n", r.name(), r.maxDifference(), r.differingPixels(), r.ok());
+            }
+            return;
+        }
+
+        System.out.printf("%-26s %10s %12s %6s%n", "Case", "max diff", "pixels off", "ok");
+        for (Result r : results) {
+            System.out.printf("%-26s %10d %12d %6s%n", r.name(), r.maxDifference(), r.differingPixels(),
+                    r.ok() ? "yes" : "NO");
+        }
+    }
+}
@@ -0,0 +1,214 @@
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Stress-checks the TweenEngine pool with thousands of wrong drops, headless.
+ *
+ * A board of PIECES pieces is dropped in the wrong place over and over, each
+ * drop sending the piece home with a return tween the way the board does,
+ * in bursts bigger than the pool so the oldest tweens have to be finished
+ * early. Now and then a returning piece is caught again, which cancels its
+ * tween, and is dropped once more. The engine is ticked by hand with uneven
+ * frame times in between. After every step the active and pooled tweens must
+ * add up to MAX_TWEENS. At the end every tween started must have been
+ * finished exactly once, the only ones not completed being the caught ones,
+ * and every piece must be home. After a warm-up round, drops made while
+ * other tweens are moving must allocate nothing; the JIT may still
+ * materialize an object now and then while it recompiles, so up to
+ * MAX_ALLOCATING_DROPS are let through (with -Xint there are none). The
+ * first drop after the engine went idle registers it with the AnimationClock
+ * again, so those are only counted. Exits with 1 if anything is off. Run with
+ * ./bench.sh TweenPoolCheck, optionally with --csv.
+ */
+public class TweenPoolCheck {
+    private static final int PIECES = 200;
+    private static final int DROPS = 20000;
+    private static final float RETURN_SECONDS = 0.5f;
+    private static final int MAX_BURST = TweenEngine.MAX_TWEENS / 4;
+    private static final int MAX_ALLOCATING_DROPS = 5;
+
+    private record Result(String name, long drops, long catches, long finishedEarly, long restarts,
+                          long poolViolations,
+                          long lost, long notHome, long allocatingDrops) {
+        boolean ok() {
+            return poolViolations == 0 && lost == 0 && notHome == 0 && allocatingDrops <= MAX_ALLOCATING_DROPS;
+        }
+    }
+
+    // A piece with a home to go back to
+    private static final class Piece implements TweenEngine.Target {
+        final float homeX;
+        final float homeY;
+        float x;
+        float y;
+        boolean returning;
+
+        Piece(float homeX, float homeY) {
+            this.homeX = homeX;
+            this.homeY = homeY;
+            this.x = homeX;
+            this.y = homeY;
+        }
+
+        @Override
+        public void setTweenPosition(float x, float y) {
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    private static final class Counts implements TweenEngine.Listener {
+        final Piece[] pieces;
+        long started;
+        long completed;
+        long cancelled;
+        long finishedEarly;
+        long finishedTwice;
+        boolean ticking;
+
+        Counts(Piece[] pieces) {
+            this.pieces = pieces;
+        }
+
+        @Override
+        public void tweenStepped(TweenEngine.Target target, int tag) {
+        }
+
+        @Override
+        public void tweenFinished(TweenEngine.Target target, int tag, boolean done) {
+            Piece piece = pieces[tag];
+            if (!piece.returning) finishedTwice++;
+            piece.returning = false;
+            if (done) {
+                completed++;
+                // Outside a tick only a full pool finishes a tween
+                if (!ticking) finishedEarly++;
+            } else {
+                cancelled++;
+            }
+        }
+    }
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public static void main(String[] args) throws Exception {
+        boolean csv = args.length > 0 && args[0].equals("--csv");
+
+        List<Result> results = new ArrayList<>();
+        // Ticked by hand on the EDT, where the engine lives; the clock's own timer waits behind this
+        javax.swing.SwingUtilities.invokeAndWait(() -> {
+            run("warm-up", DROPS, new Random(1));
+            results.add(run("wrong-drops", DROPS, new Random(42)));
+        });
+        print(results, csv);
+        System.exit(results.stream().allMatch(Result::ok) ? 0 : 1);
+    }
+
+    private static Result run(String name, int drops, Random random) {
+        TweenEngine engine = TweenEngine.getInstance();
+        Piece[] pieces = new Piece[PIECES];
+        for (int i = 0; i < PIECES; i++) {
+            pieces[i] = new Piece(random.nextInt(1800), random.nextInt(1000));
+        }
+        Counts counts = new Counts(pieces);
+
+        // Every random choice is made up front, so the run itself only exercises the engine
+        int[] piece = new int[drops];
+        float[] dropX = new float[drops];
+        float[] dropY = new float[drops];
+        int[] burst = new int[drops];
+        float[] dt = new float[drops];
+        boolean[] caught = new boolean[drops];
+        for (int i = 0; i < drops; i++) {
+            piece[i] = random.nextInt(PIECES);
+            dropX[i] = random.nextInt(1900);
+            dropY[i] = random.nextInt(1060);
+            burst[i] = 1 + random.nextInt(MAX_BURST);
+            dt[i] = 0.004f + random.nextFloat() * 0.06f;
+            caught[i] = random.nextInt(8) == 0;
+        }
+
+        long catches = 0;
+        long poolViolations = 0;
+        long restarts = 0;
+        long allocatingDrops = 0;
+        long thread = Thread.currentThread().getId();
+        for (int i = 0; i < drops; i++) {
+            Piece p = pieces[piece[i]];
+            if (p.returning && caught[i]) {
+                // Picked up on its way back, as mousePressed does
+                engine.cancel(p);
+                catches++;
+            }
+            if (!p.returning) {
+                p.x = dropX[i];
+                p.y = dropY[i];
+                p.returning = true;
+                counts.started++;
+                // Starting after the engine went idle registers it with the clock again, which may allocate
+                boolean busy = engine.getActiveCount() > 0;
+                long bytesBefore = THREADS.getThreadAllocatedBytes(thread);
+                engine.start(p, piece[i], p.x, p.y, p.homeX, p.homeY, RETURN_SECONDS, TweenEngine.EASE_OUT_CUBIC,
+                        counts);
+                if (busy) {
+                    if (THREADS.getThreadAllocatedBytes(thread) > bytesBefore) allocatingDrops++;
+                } else {
+                    restarts++;
+                }
+            }
+            if (!poolIntact(engine)) poolViolations++;
+
+            // A frame once the burst of drops is in
+            if (i % burst[i] == 0) {
+                counts.ticking = true;
+                engine.tick(dt[i]);
+                counts.ticking = false;
+                if (!poolIntact(engine)) poolViolations++;
+            }
+        }
+
+        // Let everything still moving arrive
+        counts.ticking = true;
+        for (int frame = 0; engine.getActiveCount() > 0 && frame < 1000; frame++) {
+            engine.tick(0.016f);
+            if (!poolIntact(engine)) poolViolations++;
+        }
+        counts.ticking = false;
+
+        long notHome = 0;
+        for (Piece p : pieces) {
+            if (p.returning || p.x != p.homeX || p.y != p.homeY) notHome++;
+        }
+        // Never finished, finished twice, or cancelled without being caught
+        long lost = Math.abs(counts.started - counts.completed - counts.cancelled) + counts.finishedTwice
+                + Math.abs(counts.cancelled - catches);
+        return new Result(name, counts.started, catches, counts.finishedEarly, restarts, poolViolations, lost,
+                notHome, allocatingDrops);
+    }
+
+    private static boolean poolIntact(TweenEngine engine) {
+        int active = engine.getActiveCount();
+        return active <= TweenEngine.MAX_TWEENS && active + engine.getPooledCount() == TweenEngine.MAX_TWEENS;
+    }
+
+    private static void print(List<Result> results, boolean csv) {
+        if (csv) {
+            System.out.println("case,tweens,catches,finished_early,restarts,pool_violations,lost,not_home,allocating_drops,ok");
+            for (Result r : results) {
+                System.out.printf("%s,%d,%d,%d,%d,%d,%d,%d,%d,%b%n", r.name(), r.drops(), r.catches(),
+                        r.finishedEarly(), r.restarts(), r.poolViolations(), r.lost(), r.notHome(), r.allocatingDrops(), r.ok());
+            }
+            return;
+        }
+
+        System.out.printf("%-14s %8s %8s %8s %9s %10s %6s %9s %11s %6s%n", "Case", "tweens", "catches", "early",
+                "restarts", "pool bad", "lost", "not home", "allocating", "ok");
+        for (Result r : results) {
+            System.out.printf("%-14s %8d %8d %8d %9d %10d %6d %9d %11d %6s%n", r.name(), r.drops(), r.catches(),
+                    r.finishedEarly(), r.restarts(), r.poolViolations(), r.lost(), r.notHome(), r.allocatingDrops(), r.ok() ? "yes" : "NO");
+        }
+    }
+}
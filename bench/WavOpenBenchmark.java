@@ -0,0 +1,157 @@
+import javax.sound.sampled.*;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+/**
+ * Time to open a WAV and reach its first sample, AudioSystem versus mapped.
+ *
+ * "audiosystem" is what the app did before WavFile: AudioSystem parses the
+ * URL into an AudioInputStream and the first frame is read through it.
+ * "mapped" is WavFile.open, which maps the file and finds the data chunk,
+ * then reads the first frame from the mapping. Each is run on a short effect
+ * and a 60 s track, both already in SoundBank.FORMAT, as plain files and as
+ * entries in a jar (which WavFile extracts on its first open). Reported:
+ * the first open of each URL, the median open and median time to the first
+ * sample over repeated opens, and bytes allocated per open. Run with
+ * ./bench.sh WavOpenBenchmark, optionally with --csv.
+ */
+public class WavOpenBenchmark {
+    private static final int REPEATS = 500;
+
+    private record Result(String name, double firstOpenMicros, double openMicros, double firstSampleMicros,
+                          double bytesPerOpen) {}
+
+    private interface Opener {
+        // Opens the URL, then reads its first frame; returns when it has it
+        void open(URL url, long[] openedAt) throws Exception;
+    }
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public static void main(String[] args) throws Exception {
+        boolean csv = args.length > 0 && args[0].equals("--csv");
+
+        File dir = Files.createTempDirectory("wav-open-bench").toFile();
+        File effect = writeWav(new File(dir, "effect.wav"), 0.25);
+        File track = writeWav(new File(dir, "track.wav"), 60);
+        File jar = new File(dir, "assets.jar");
+        writeJar(jar, effect, track);
+
+        List<Result> results = new ArrayList<>();
+        try {
+            for (String source : new String[]{"file", "jar"}) {
+                for (File wav : new File[]{effect, track}) {
+                    String name = wav.getName().replace(".wav", "");
+                    URL url = source.equals("file")
+                            ? wav.toURI().toURL()
+                            : new URL("jar:" + jar.toURI() + "!/" + wav.getName());
+                    results.add(measure("audiosystem/" + source + "/" + name, url, WavOpenBenchmark::openAudioSystem));
+                    results.add(measure("mapped/" + source + "/" + name, url, WavOpenBenchmark::openMapped));
+                }
+            }
+        } finally {
+            for (File f : new File[]{effect, track, jar, dir}) {
+                f.delete();
+            }
+        }
+        print(results, csv);
+    }
+
+    private static void openAudioSystem(URL url, long[] openedAt) throws Exception {
+        try (AudioInputStream in = AudioSystem.getAudioInputStream(url)) {
+            openedAt[0] = System.nanoTime();
+            byte[] frame = new byte[in.getFormat().getFrameSize()];
+            if (in.read(frame) != frame.length) throw new IOException("no first frame");
+        }
+    }
+
+    private static void openMapped(URL url, long[] openedAt) throws Exception {
+        WavFile wav = WavFile.open(url);
+        openedAt[0] = System.nanoTime();
+        if (wav.frames().getShort(0) == Short.MIN_VALUE) throw new IOException("unexpected first frame");
+    }
+
+    private static Result measure(String name, URL url, Opener opener) throws Exception {
+        long[] openedAt = new long[1];
+        long first = System.nanoTime();
+        opener.open(url, openedAt);
+        long firstOpen = openedAt[0] - first;
+
+        long[] opens = new long[REPEATS];
+        long[] firstSamples = new long[REPEATS];
+        long thread = Thread.currentThread().getId();
+        long bytesBefore = THREADS.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < REPEATS; i++) {
+            long start = System.nanoTime();
+            opener.open(url, openedAt);
+            long end = System.nanoTime();
+            opens[i] = openedAt[0] - start;
+            firstSamples[i] = end - start;
+        }
+        long bytes = THREADS.getThreadAllocatedBytes(thread) - bytesBefore;
+        return new Result(name, firstOpen / 1e3, median(opens) / 1e3, median(firstSamples) / 1e3,
+                bytes / (double) REPEATS);
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    // A tone in the mixer's own format, so neither path has to convert it
+    private static File writeWav(File file, double seconds) throws IOException {
+        AudioFormat format = SoundBank.FORMAT;
+        int frames = (int) (format.getFrameRate() * seconds);
+        byte[] pcm = new byte[frames * format.getFrameSize()];
+        for (int i = 0; i < frames; i++) {
+            int value = (int) (Math.sin(2 * Math.PI * 440 * i / format.getFrameRate()) * 12000) + 1;
+            for (int c = 0; c < 2; c++) {
+                pcm[4 * i + 2 * c] = (byte) value;
+                pcm[4 * i + 2 * c + 1] = (byte) (value >> 8);
+            }
+        }
+        AudioInputStream in = new AudioInputStream(new ByteArrayInputStream(pcm), format, frames);
+        AudioSystem.write(in, AudioFileFormat.Type.WAVE, file);
+        return file;
+    }
+
+    private static void writeJar(File jar, File... entries) throws IOException {
+        try (JarOutputStream out = new JarOutputStream(new FileOutputStream(jar))) {
+            for (File entry : entries) {
+                out.putNextEntry(new JarEntry(entry.getName()));
+                Files.copy(entry.toPath(), out);
+                out.closeEntry();
+            }
+        }
+    }
+
+    private static void print(List<Result> results, boolean csv) {
+        if (csv) {
+            System.out.println("case,first_open_us,open_us,first_sample_us,bytes_per_open");
+            for (Result r : results) {
+                System.out.printf("%s,%.1f,%.1f,%.1f,%.0f%n", r.name(), r.firstOpenMicros(), r.openMicros(),
+                        r.firstSampleMicros(), r.bytesPerOpen());
+            }
+            return;
+        }
+
+        System.out.printf("%-26s %14s %10s %16s %14s%n", "Case", "first open µs", "open µs", "first sample µs",
+                "bytes/open");
+        for (Result r : results) {
+            System.out.printf("%-26s %14.1f %10.1f %16.1f %14.0f%n", r.name(), r.firstOpenMicros(), r.openMicros(),
+                    r.firstSampleMicros(), r.bytesPerOpen());
+        }
+    }
+}
@@ -1,41 +1,136 @@
 import javax.swing.*;
 import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.Objects;
 
+/**
+ * Title whose opacity gently pulses. The label is laid out and rasterized once
+ * into a cached image with one pixel per device pixel, taking the scale from
+ * the Graphics it is painted with; each pulse step only blits that image at
+ * the current alpha. The image is rebuilt when the text, font, color, size,
+ * scale or screen changes.
+ */
 public class AnimatedTitleLabel extends JLabel {
-    private Timer pulseTimer;
+    // Same pace as the old 50 ms timer stepping by 0.02
+    private static final float PULSE_SPEED = 0.4f;
+    // A slow fade needs no more than 30 steps a second
+    static final int PULSE_MS = 33;
+
+    private final AnimationClock.Animation pulse = this::pulse;
     private float alpha = 1.0f;
     private boolean increasing = false;
 
+    // What the cached glyph image was rendered for
+    private BufferedImage glyphs;
+    private String glyphsText;
+    private Font glyphsFont;
+    private Color glyphsForeground;
+    private GraphicsConfiguration glyphsConfig;
+    private int glyphsWidth;
+    private int glyphsHeight;
+    private double glyphsScaleX;
+    private double glyphsScaleY;
+
     public AnimatedTitleLabel(String text) {
         super(text, JLabel.CENTER);
-        setFont(new Font("Comic Sans MS", Font.BOLD, 32));
-        setForeground(new Color(255, 107, 107));
-
-        pulseTimer = new Timer(50, e -> {
-            if (increasing) {
-                alpha += 0.02f;
-                if (alpha >= 1.0f) {
-                    alpha = 1.0f;
-                    increasing = false;
-                }
-            } else {
-                alpha -= 0.02f;
-                if (alpha <= 0.7f) {
-                    alpha = 0.7f;
-                    increasing = true;
-                }
+        setFont(Theme.TITLE_FONT);
+        setForeground(Theme.CORAL);
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        AnimationClock.getInstance().add(pulse, this, PULSE_MS);
+    }
+
+    @Override
+    public void removeNotify() {
+        AnimationClock.getInstance().remove(pulse);
+        super.removeNotify();
+    }
+
+    private boolean pulse(float dt) {
+        if (increasing) {
+            alpha += PULSE_SPEED * dt;
+            if (alpha >= 1.0f) {
+                alpha = 1.0f;
+                increasing = false;
+            }
+        } else {
+            alpha -= PULSE_SPEED * dt;
+            if (alpha <= 0.7f) {
+                alpha = 0.7f;
+                increasing = true;
             }
-            repaint();
-        });
-        pulseTimer.start();
+        }
+        AnimationClock.getInstance().requestRepaint(this);
+        return true;
     }
 
     @Override
     protected void paintComponent(Graphics g) {
+        int width = getWidth();
+        int height = getHeight();
+        if (width <= 0 || height <= 0) return;
+
+        long hudStart = PerformanceHud.beginPaint();
         Graphics2D g2 = (Graphics2D) g.create();
-        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        AffineTransform transform = g2.getTransform();
+        double scaleX = transform.getScaleX() > 0 ? transform.getScaleX() : 1;
+        double scaleY = transform.getScaleY() > 0 ? transform.getScaleY() : 1;
+        if (!isGlyphCacheValid(width, height, scaleX, scaleY)) {
+            renderGlyphs(width, height, scaleX, scaleY);
+        }
+
         g2.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, alpha));
+        g2.scale(1 / scaleX, 1 / scaleY); // the image is already at device scale
+        g2.drawImage(glyphs, 0, 0, null);
+        g2.dispose();
+        PerformanceHud.endPaint(PerformanceHud.Slot.TITLE, hudStart);
+    }
+
+    private boolean isGlyphCacheValid(int width, int height, double scaleX, double scaleY) {
+        return glyphs != null
+                && glyphsWidth == width
+                && glyphsHeight == height
+                && glyphsScaleX == scaleX
+                && glyphsScaleY == scaleY
+                && glyphsConfig == getGraphicsConfiguration()
+                && Objects.equals(glyphsText, getText())
+                && Objects.equals(glyphsFont, getFont())
+                && Objects.equals(glyphsForeground, getForeground());
+    }
+
+    private void renderGlyphs(int width, int height, double scaleX, double scaleY) {
+        if (glyphs != null) {
+            glyphs.flush();
+        }
+
+        GraphicsConfiguration gc = getGraphicsConfiguration();
+        int deviceWidth = (int) Math.ceil(width * scaleX);
+        int deviceHeight = (int) Math.ceil(height * scaleY);
+        glyphs = gc != null
+                ? gc.createCompatibleImage(deviceWidth, deviceHeight, Transparency.TRANSLUCENT)
+                : new BufferedImage(deviceWidth, deviceHeight, BufferedImage.TYPE_INT_ARGB_PRE);
+
+        // Full opacity here; the pulse alpha is applied when the image is blitted.
+        // Font and color are set the way JComponent.paint prepares its Graphics.
+        Graphics2D g2 = glyphs.createGraphics();
+        g2.scale(scaleX, scaleY);
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2.setFont(getFont());
+        g2.setColor(getForeground());
         super.paintComponent(g2);
         g2.dispose();
+
+        glyphsText = getText();
+        glyphsFont = getFont();
+        glyphsForeground = getForeground();
+        glyphsConfig = gc;
+        glyphsWidth = width;
+        glyphsHeight = height;
+        glyphsScaleX = scaleX;
+        glyphsScaleY = scaleY;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,312 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.HierarchyEvent;
+import java.awt.event.HierarchyListener;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+
+/**
+ * One frame clock shared by every animation in the app.
+ *
+ * A single Swing Timer ticks the registered animations, each at its own rate
+ * and with its own delta time. The timer is one-shot and rearmed for the next
+ * animation that is due, and animations at the same rate share a wake-up, so
+ * a 30 Hz menu costs 30 EDT events a second. An animation registered with an
+ * owner component is paused while the owner isn't showing, and the timer
+ * stops when nothing is left to tick. Repaints requested during a frame are
+ * painted directly at its end, inside the timer event, instead of posting a
+ * paint event: whole components, or only the regions that changed. All
+ * methods must be called on the EDT.
+ */
+public final class AnimationClock {
+
+    /** Something that moves over time. */
+    public interface Animation {
+        /**
+         * Advances the animation.
+         *
+         * @param dt seconds since the animation's previous tick
+         * @return false once the animation is finished and should be unregistered
+         */
+        boolean tick(float dt);
+    }
+
+    public static final int FRAME_MS = 16;
+
+    // Don't let a long stall (modal dialog, GC) make everything jump
+    private static final float MAX_DT = 0.1f;
+
+    // An animation this close to due ticks now, so animations at one rate share a wake-up
+    private static final long SLACK_NANOS = 4_000_000L;
+
+    // More regions than this for one component in a frame are painted as their union
+    private static final int MAX_REGIONS = 16;
+
+    private static final AnimationClock INSTANCE = new AnimationClock();
+
+    private static final class Registration {
+        final Animation animation;
+        final Component owner;
+        final long intervalNanos;
+        HierarchyListener showingListener;
+        long lastTickNanos;
+
+        Registration(Animation animation, Component owner, int intervalMs) {
+            this.animation = animation;
+            this.owner = owner;
+            this.intervalNanos = intervalMs * 1_000_000L;
+        }
+
+        boolean isActive() {
+            return owner == null || owner.isShowing();
+        }
+    }
+
+    // What to repaint of one component at the end of the frame
+    private static final class Dirty {
+        Component component;
+        boolean whole;
+        int count; // regions requested; the first MAX_REGIONS are kept, the union covers them all
+        final int[] regions = new int[4 * MAX_REGIONS]; // x, y, width, height each
+        int left, top, right, bottom;
+    }
+
+    private final Timer timer;
+    private final ArrayList<Registration> registrations = new ArrayList<>();
+    // The first dirtyCount entries are this frame's, in request order; the rest are kept for reuse
+    private final ArrayList<Dirty> dirty = new ArrayList<>();
+    private int dirtyCount = 0;
+    private final IdentityHashMap<Component, Dirty> dirtyByComponent = new IdentityHashMap<>();
+    private boolean ticking = false;
+    private boolean hasRemovals = false;
+    private long tickCount = 0;
+
+    private AnimationClock() {
+        timer = new Timer(FRAME_MS, e -> tick());
+        timer.setRepeats(false);
+    }
+
+    public static AnimationClock getInstance() {
+        return INSTANCE;
+    }
+
+    /** Ticks the animation every frame until it is removed or finishes. */
+    public void add(Animation animation) {
+        add(animation, null, FRAME_MS);
+    }
+
+    /**
+     * Ticks the animation every intervalMs while owner is showing (always, if
+     * owner is null), until it is removed or finishes.
+     */
+    public void add(Animation animation, Component owner, int intervalMs) {
+        if (animation == null || isRegistered(animation)) return;
+
+        Registration registration = new Registration(animation, owner, Math.max(1, intervalMs));
+        registration.lastTickNanos = System.nanoTime();
+        if (owner != null) {
+            registration.showingListener = e -> {
+                if ((e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) == 0) return;
+                // Coming back after a pause: the first tick shouldn't cover the hidden time
+                registration.lastTickNanos = System.nanoTime();
+                if (!ticking) schedule();
+            };
+            owner.addHierarchyListener(registration.showingListener);
+        }
+        registrations.add(registration);
+        if (!ticking) schedule();
+    }
+
+    public void remove(Animation animation) {
+        int index = indexOf(animation);
+        if (index < 0) return;
+
+        Registration registration = registrations.get(index);
+        if (registration.owner != null) {
+            registration.owner.removeHierarchyListener(registration.showingListener);
+        }
+        if (ticking) {
+            // Compacted at the end of the current frame
+            registrations.set(index, null);
+            hasRemovals = true;
+        } else {
+            registrations.remove(index);
+            schedule();
+        }
+    }
+
+    public boolean isRegistered(Animation animation) {
+        return indexOf(animation) >= 0;
+    }
+
+    /**
+     * Marks a component for repainting at the end of the current frame.
+     * Several requests for the same component in one frame become one repaint.
+     */
+    public void requestRepaint(Component component) {
+        addDirty(component, 0, 0, -1, -1);
+    }
+
+    /**
+     * Marks a region of a component for repainting at the end of the current
+     * frame, leaving the rest of it (and its children there) alone.
+     */
+    public void requestRepaint(Component component, int x, int y, int width, int height) {
+        if (width <= 0 || height <= 0) return;
+        addDirty(component, x, y, width, height);
+    }
+
+    public boolean isRunning() {
+        return timer.isRunning();
+    }
+
+    /** Number of frames (EDT timer events) delivered since startup. */
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    private int indexOf(Animation animation) {
+        for (int i = 0; i < registrations.size(); i++) {
+            Registration registration = registrations.get(i);
+            if (registration != null && registration.animation == animation) return i;
+        }
+        return -1;
+    }
+
+    private void addDirty(Component component, int x, int y, int width, int height) {
+        Dirty entry = dirtyByComponent.get(component);
+        if (entry == null) {
+            if (dirtyCount == dirty.size()) dirty.add(new Dirty());
+            entry = dirty.get(dirtyCount++);
+            entry.component = component;
+            entry.whole = false;
+            entry.count = 0;
+            entry.left = Integer.MAX_VALUE;
+            entry.top = Integer.MAX_VALUE;
+            entry.right = Integer.MIN_VALUE;
+            entry.bottom = Integer.MIN_VALUE;
+            dirtyByComponent.put(component, entry);
+
+            // Outside a frame: make sure one comes. Later requests for the component find it already asked for.
+            if (!ticking && !timer.isRunning()) {
+                timer.setInitialDelay(0);
+                timer.start();
+            }
+        }
+
+        if (entry.whole) {
+            return; // all of it already
+        } else if (width < 0) {
+            entry.whole = true;
+        } else {
+            if (entry.count < MAX_REGIONS) {
+                int at = 4 * entry.count;
+                entry.regions[at] = x;
+                entry.regions[at + 1] = y;
+                entry.regions[at + 2] = width;
+                entry.regions[at + 3] = height;
+            }
+            entry.count++;
+            entry.left = Math.min(entry.left, x);
+            entry.top = Math.min(entry.top, y);
+            entry.right = Math.max(entry.right, x + width);
+            entry.bottom = Math.max(entry.bottom, y + height);
+        }
+    }
+
+    private void tick() {
+        long now = System.nanoTime();
+        tickCount++;
+
+        ticking = true;
+        try {
+            // Animations added during this frame start ticking on the next one
+            int count = registrations.size();
+            for (int i = 0; i < count; i++) {
+                Registration registration = registrations.get(i);
+                if (registration == null || !registration.isActive()) continue;
+                if (now - registration.lastTickNanos < registration.intervalNanos - SLACK_NANOS) continue;
+
+                float dt = Math.min((now - registration.lastTickNanos) / 1_000_000_000f, MAX_DT);
+                registration.lastTickNanos = now;
+
+                boolean keepRunning;
+                try {
+                    keepRunning = registration.animation.tick(dt);
+                } catch (RuntimeException ex) {
+                    System.err.println("❌ Animation failed, removing it: " + ex.getMessage());
+                    ex.printStackTrace();
+                    keepRunning = false;
+                }
+
+                if (!keepRunning && registrations.get(i) != null) {
+                    if (registration.owner != null) {
+                        registration.owner.removeHierarchyListener(registration.showingListener);
+                    }
+                    registrations.set(i, null);
+                    hasRemovals = true;
+                }
+            }
+        } finally {
+            ticking = false;
+        }
+
+        if (hasRemovals) {
+            registrations.removeIf(r -> r == null);
+            hasRemovals = false;
+        }
+
+        paintDirty();
+        schedule();
+    }
+
+    // Paints each dirty component once: all of it, its regions one by one, or their union if there are many
+    private void paintDirty() {
+        // Requests made while painting get an entry of their own further on, painted in this loop too
+        for (int i = 0; i < dirtyCount; i++) {
+            Dirty entry = dirty.get(i);
+            Component component = entry.component;
+            dirtyByComponent.remove(component);
+            entry.component = null;
+
+            if (entry.whole) {
+                paint(component, 0, 0, component.getWidth(), component.getHeight());
+            } else if (entry.count > MAX_REGIONS) {
+                paint(component, entry.left, entry.top, entry.right - entry.left, entry.bottom - entry.top);
+            } else {
+                for (int at = 0; at < 4 * entry.count; at += 4) {
+                    paint(component, entry.regions[at], entry.regions[at + 1], entry.regions[at + 2],
+                            entry.regions[at + 3]);
+                }
+            }
+        }
+        dirtyCount = 0;
+    }
+
+    private static void paint(Component component, int x, int y, int width, int height) {
+        if (component instanceof JComponent view) {
+            view.paintImmediately(x, y, width, height);
+        } else {
+            component.repaint(x, y, width, height);
+        }
+    }
+
+    // Arms the timer for the next active animation, or stops it if there is none
+    private void schedule() {
+        long next = Long.MAX_VALUE;
+        for (int i = 0; i < registrations.size(); i++) {
+            Registration registration = registrations.get(i);
+            if (registration != null && registration.isActive()) {
+                next = Math.min(next, registration.lastTickNanos + registration.intervalNanos);
+            }
+        }
+        if (next == Long.MAX_VALUE) {
+            if (dirtyCount == 0) timer.stop();
+            return;
+        }
+
+        long delayNanos = Math.max(0, next - System.nanoTime());
+        timer.setInitialDelay((int) ((delayNanos + 999_999) / 1_000_000));
+        timer.restart();
+    }
+}
@@ -0,0 +1,177 @@
+import javax.sound.sampled.*;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Audio converted to SoundBank.FORMAT once and kept on disk between runs.
+ *
+ * open() hands back a WavFile already in FORMAT. An asset that is in FORMAT
+ * is simply mapped. Anything else is converted the first time and written
+ * to the cache as a WAV named after the SHA-256 of the asset's bytes and the
+ * target format, so a later run (or the same asset under another name) only
+ * hashes and maps it. Within a run each resource is hashed once. Files are
+ * written under a temporary name and moved into place, so a half-written
+ * file is never picked up. A hit refreshes the file's modified time, and
+ * after each new file the least recently used ones are deleted until the
+ * cache fits its size bound.
+ *
+ * System properties:
+ *   emy.audio.cacheDir  directory for the cache (default ~/.emy-girl/audio-cache)
+ *   emy.audio.cacheMb   size bound in megabytes (default 256)
+ */
+public final class AudioCache {
+    public static final long DEFAULT_MAX_MB = 256;
+    private static final String SUFFIX = ".wav";
+
+    private static AudioCache instance;
+
+    private final Path dir;
+    private final long maxBytes;
+    private final Map<String, Path> resolved = new HashMap<>(); // resource URL -> cached file, this run
+
+    public AudioCache(Path dir, long maxBytes) {
+        this.dir = dir;
+        this.maxBytes = maxBytes;
+    }
+
+    public static synchronized AudioCache getInstance() {
+        if (instance == null) {
+            String dir = System.getProperty("emy.audio.cacheDir",
+                    System.getProperty("user.home") + File.separator + ".emy-girl" + File.separator + "audio-cache");
+            instance = new AudioCache(Paths.get(dir), Long.getLong("emy.audio.cacheMb", DEFAULT_MAX_MB) * 1024 * 1024);
+        }
+        return instance;
+    }
+
+    /** The resource mapped in SoundBank.FORMAT, converting and caching it if it isn't already. */
+    public synchronized WavFile open(URL resource) throws IOException, UnsupportedAudioFileException {
+        WavFile source = null;
+        try {
+            source = WavFile.open(resource);
+            if (source.getFormat().matches(SoundBank.FORMAT)) return source;
+        } catch (UnsupportedAudioFileException e) {
+            // Not plain PCM WAV: AudioSystem will read it
+        }
+
+        String key = resource.toExternalForm();
+        Path cached = resolved.get(key);
+        if (cached == null || !Files.exists(cached)) {
+            cached = dir.resolve(hash(resource, source) + "-" + formatKey() + SUFFIX);
+            if (!Files.exists(cached)) {
+                convert(resource, source, cached);
+                evict(cached);
+            }
+            resolved.put(key, cached);
+        }
+        Files.setLastModifiedTime(cached, FileTime.fromMillis(System.currentTimeMillis())); // most recently used
+        return WavFile.map(cached);
+    }
+
+    public Path getDirectory() {
+        return dir;
+    }
+
+    // A mapped WAV is hashed from its file; anything else is read through once
+    private static String hash(URL resource, WavFile source) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException("no SHA-256", e);
+        }
+
+        if (source != null) {
+            try (FileChannel channel = FileChannel.open(source.getFile(), StandardOpenOption.READ)) {
+                digest.update(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            }
+        } else {
+            try (InputStream in = resource.openStream()) {
+                byte[] buffer = new byte[64 * 1024];
+                int read;
+                while ((read = in.read(buffer)) > 0) {
+                    digest.update(buffer, 0, read);
+                }
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    // e.g. 44100hz-16bit-2ch-le, so a change of mixer format never picks up old files
+    private static String formatKey() {
+        AudioFormat format = SoundBank.FORMAT;
+        return (int) format.getSampleRate() + "hz-" + format.getSampleSizeInBits() + "bit-"
+                + format.getChannels() + "ch-" + (format.isBigEndian() ? "be" : "le");
+    }
+
+    private void convert(URL resource, WavFile source, Path target) throws IOException, UnsupportedAudioFileException {
+        long start = System.nanoTime();
+        Files.createDirectories(dir);
+        Path partial = Files.createTempFile(dir, "converting-", ".tmp");
+        try (AudioInputStream in = source != null ? source.openStream() : AudioSystem.getAudioInputStream(resource)) {
+            if (!AudioSystem.isConversionSupported(SoundBank.FORMAT, in.getFormat())) {
+                throw new UnsupportedAudioFileException("can't convert " + in.getFormat() + " to " + SoundBank.FORMAT);
+            }
+            AudioSystem.write(AudioSystem.getAudioInputStream(SoundBank.FORMAT, in), AudioFileFormat.Type.WAVE,
+                    partial.toFile());
+            try {
+                Files.move(partial, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(partial);
+        }
+        System.out.printf("💾 Converted %s into the audio cache (%.1f ms)%n",
+                resource.getPath().substring(resource.getPath().lastIndexOf('/') + 1), (System.nanoTime() - start) / 1e6);
+    }
+
+    // Least recently used first, never the file just written
+    private void evict(Path keep) throws IOException {
+        record Entry(Path path, long size, FileTime used) {}
+        List<Entry> entries = new ArrayList<>();
+        long total = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*" + SUFFIX)) {
+            for (Path file : files) {
+                try {
+                    long size = Files.size(file);
+                    entries.add(new Entry(file, size, Files.getLastModifiedTime(file)));
+                    total += size;
+                } catch (IOException e) {
+                    // Deleted under us by another run
+                }
+            }
+        }
+
+        entries.sort(Comparator.comparing(Entry::used));
+        for (Entry entry : entries) {
+            if (total <= maxBytes) break;
+            if (entry.path().equals(keep)) continue;
+            try {
+                Files.delete(entry.path());
+                total -= entry.size();
+                resolved.values().remove(entry.path());
+            } catch (IOException e) {
+                // Still open elsewhere (Windows won't delete a mapped file); try again next time
+            }
+        }
+    }
+}
@@ -0,0 +1,147 @@
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Lays out Shape Matching boards of any size.
+ *
+ * Pieces fill a grid of equal slots on the left half of the board and their
+ * targets take the same slots on the right half, in scrambled order.
+ * The number of columns is picked to make the slots as large as possible for
+ * the space available, and the piece size follows from the slot size (never
+ * larger than the classic 70 px), so nothing overlaps at any piece count.
+ *
+ * Piece i gets shape i % shapes.length and a color that shifts by one every
+ * time the shapes wrap around, so a six-piece board with the default palette
+ * is the classic one and larger boards mix shapes and colors.
+ */
+public final class BoardGenerator {
+    public static final int CLASSIC_PIECES = 6;
+    public static final int CLASSIC_WIDTH = 900;
+    public static final int CLASSIC_HEIGHT = 680;
+
+    public static final ShapeMatchingGame.ShapeType[] DEFAULT_SHAPES = ShapeMatchingGame.ShapeType.values();
+    public static final Color[] DEFAULT_COLORS = {
+            Theme.CORAL, Theme.GREEN, Theme.BLUE, Theme.ORANGE, Theme.VIOLET, Theme.YELLOW
+    };
+
+    static final int HEADER_HEIGHT = 75; // title, instructions and progress bar
+    private static final int MARGIN = 10;
+    private static final int MAX_PIECE_SIZE = 70;
+    private static final int MIN_PIECE_SIZE = 20;
+    private static final int SLOT_PADDING = 28; // target box border plus the label above it
+
+    /** A generated layout. Arrays are owned by the board that plays it. */
+    public record Board(ShapeMatchingGame.DraggableShape[] shapes, ShapeMatchingGame.TargetZone[] targets,
+                        int width, int height, int pieceSize) {}
+
+    private BoardGenerator() {
+    }
+
+    /** The six-piece board the game has always had, with its targets shuffled. */
+    public static Board classic() {
+        return generate(CLASSIC_PIECES, CLASSIC_WIDTH, CLASSIC_HEIGHT, new Random());
+    }
+
+    public static Board generate(int pieces, int width, int height, Random random) {
+        return generate(pieces, DEFAULT_SHAPES, DEFAULT_COLORS, width, height, random);
+    }
+
+    public static Board generate(int pieces, ShapeMatchingGame.ShapeType[] shapeTypes, Color[] colors,
+                                 int width, int height, Random random) {
+        if (pieces <= 0) {
+            throw new IllegalArgumentException("A board needs at least one piece, got " + pieces);
+        }
+        if (shapeTypes.length == 0 || colors.length == 0) {
+            throw new IllegalArgumentException("The palette needs at least one shape and one color");
+        }
+
+        int halfWidth = width / 2;
+        int areaWidth = halfWidth - 2 * MARGIN;
+        int areaHeight = height - HEADER_HEIGHT - MARGIN;
+        int columns = bestColumns(pieces, areaWidth, areaHeight);
+        int rows = (pieces + columns - 1) / columns;
+        double slotWidth = (double) areaWidth / columns;
+        double slotHeight = (double) areaHeight / rows;
+        int pieceSize = pieceSize(slotWidth, slotHeight);
+        if (pieceSize < MIN_PIECE_SIZE) {
+            throw new IllegalArgumentException(pieces + " pieces don't fit on a " + width + "x" + height + " board");
+        }
+
+        // Slots column by column, top to bottom, each piece centered in its slot
+        int[] slotX = new int[pieces];
+        int[] slotY = new int[pieces];
+        for (int i = 0; i < pieces; i++) {
+            int column = i / rows;
+            int row = i % rows;
+            slotX[i] = MARGIN + (int) (column * slotWidth + (slotWidth - pieceSize) / 2);
+            slotY[i] = HEADER_HEIGHT + (int) (row * slotHeight + (slotHeight - pieceSize) / 2);
+        }
+
+        // Targets take the same slots on the right half, scrambled for challenge
+        List<Integer> targetSlots = new ArrayList<>(pieces);
+        for (int i = 0; i < pieces; i++) {
+            targetSlots.add(i);
+        }
+        Collections.shuffle(targetSlots, random);
+
+        ShapeMatchingGame.DraggableShape[] shapes = new ShapeMatchingGame.DraggableShape[pieces];
+        ShapeMatchingGame.TargetZone[] targets = new ShapeMatchingGame.TargetZone[pieces];
+        for (int i = 0; i < pieces; i++) {
+            ShapeMatchingGame.ShapeType type = shapeTypes[i % shapeTypes.length];
+            Color color = colors[(i + i / shapeTypes.length) % colors.length];
+            int slot = targetSlots.get(i);
+            shapes[i] = new ShapeMatchingGame.DraggableShape(slotX[i], slotY[i], type, color, pieceSize);
+            targets[i] = new ShapeMatchingGame.TargetZone(halfWidth + slotX[slot], slotY[slot], type, color, pieceSize);
+        }
+
+        return new Board(shapes, targets, width, height, pieceSize);
+    }
+
+    /** The most pieces that fit on a board of this size, 0 if not even one does. */
+    public static int maxPieces(int width, int height) {
+        int areaWidth = width / 2 - 2 * MARGIN;
+        int areaHeight = height - HEADER_HEIGHT - MARGIN;
+        int slot = MIN_PIECE_SIZE + SLOT_PADDING;
+        // Pieces only shrink as more are added, so search up to the count that smallest slot allows
+        int low = 0;
+        int high = Math.max(0, areaWidth / slot) * Math.max(0, areaHeight / slot);
+        while (low < high) {
+            int pieces = (low + high + 1) / 2;
+            if (fits(pieces, areaWidth, areaHeight)) {
+                low = pieces;
+            } else {
+                high = pieces - 1;
+            }
+        }
+        return low;
+    }
+
+    private static boolean fits(int pieces, int areaWidth, int areaHeight) {
+        int columns = bestColumns(pieces, areaWidth, areaHeight);
+        int rows = (pieces + columns - 1) / columns;
+        return pieceSize((double) areaWidth / columns, (double) areaHeight / rows) >= MIN_PIECE_SIZE;
+    }
+
+    private static int pieceSize(double slotWidth, double slotHeight) {
+        return (int) Math.min(MAX_PIECE_SIZE, Math.min(slotWidth, slotHeight) - SLOT_PADDING);
+    }
+
+    // Fewest columns that give the largest pieces; slots bigger than a full-size piece don't help
+    private static int bestColumns(int pieces, int areaWidth, int areaHeight) {
+        int best = 1;
+        double bestSlot = 0;
+        for (int columns = 1; columns <= pieces; columns++) {
+            int rows = (pieces + columns - 1) / columns;
+            double slot = Math.min(MAX_PIECE_SIZE + SLOT_PADDING,
+                    Math.min((double) areaWidth / columns, (double) areaHeight / rows));
+            if (slot > bestSlot) {
+                bestSlot = slot;
+                best = columns;
+            }
+        }
+        return best;
+    }
+}
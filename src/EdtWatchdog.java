@@ -0,0 +1,193 @@
+import java.awt.*;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.logging.FileHandler;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.logging.SimpleFormatter;
+
+/**
+ * Watches the Event Dispatch Thread for events that take too long.
+ *
+ * Installed as the system EventQueue, it timestamps every dispatch. A daemon
+ * thread polls those timestamps; once a dispatch runs past the budget it
+ * samples the EDT's stack (a few times for long freezes), and when the
+ * dispatch finishes its total time is recorded as well. Reports go to a
+ * rolling log in ~/.emy-girl/logs. Nested dispatch loops (modal dialogs) are
+ * timed separately: while the loop waits for its next event the outer
+ * dispatch's clock is paused, so an open dialog doesn't count as a stall.
+ *
+ * System properties:
+ *   emy.edt.watchdog  set to false to disable (default true)
+ *   emy.edt.budgetMs  dispatch budget in milliseconds (default 16)
+ *   emy.edt.logDir    directory for the rolling log
+ */
+public class EdtWatchdog extends EventQueue {
+    private static final int MAX_SAMPLES_PER_STALL = 5;
+    private static final int LOG_FILE_LIMIT = 1024 * 1024;
+    private static final int LOG_FILE_COUNT = 5;
+
+    private static final Logger LOG = Logger.getLogger("EdtWatchdog");
+    private static EdtWatchdog installed;
+
+    private record Stall(long seq, long nanos, String event) {}
+
+    private final long budgetNanos;
+    private final long pollMillis;
+    private final ConcurrentLinkedQueue<Stall> finished = new ConcurrentLinkedQueue<>();
+
+    // Written on the EDT, read by the watcher thread
+    private volatile Thread edt;
+    private volatile long dispatchStart = 0; // 0 while the EDT is idle
+    private volatile long dispatchSeq = 0;
+    private long nextSeq = 0;
+    private int depth = 0;
+
+    private EdtWatchdog(long budgetMillis) {
+        this.budgetNanos = budgetMillis * 1_000_000L;
+        this.pollMillis = Math.max(2, Math.min(50, budgetMillis / 2));
+    }
+
+    /** Installs the watchdog once, unless disabled with -Demy.edt.watchdog=false. */
+    public static synchronized void install() {
+        if (installed != null || !Boolean.parseBoolean(System.getProperty("emy.edt.watchdog", "true"))) return;
+        if (GraphicsEnvironment.isHeadless()) return;
+
+        long budget = Long.getLong("emy.edt.budgetMs", 16);
+        if (!openLog()) return;
+
+        start(budget);
+        System.out.println("🐶 EDT watchdog active (budget " + budget + " ms)");
+    }
+
+    /** Pushes a watchdog without the checks or the log file, e.g. for a headless check. */
+    static synchronized void start(long budgetMillis) {
+        if (installed != null) return;
+        installed = new EdtWatchdog(budgetMillis);
+        Toolkit.getDefaultToolkit().getSystemEventQueue().push(installed);
+
+        Thread watcher = new Thread(installed::watch, "edt-watchdog");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    private static boolean openLog() {
+        String dir = System.getProperty("emy.edt.logDir",
+                System.getProperty("user.home") + File.separator + ".emy-girl" + File.separator + "logs");
+        try {
+            new File(dir).mkdirs();
+            FileHandler handler = new FileHandler(dir + File.separator + "edt-stalls-%g.log",
+                    LOG_FILE_LIMIT, LOG_FILE_COUNT, true);
+            handler.setFormatter(new SimpleFormatter());
+            LOG.addHandler(handler);
+            LOG.setUseParentHandlers(false);
+            return true;
+        } catch (IOException | SecurityException e) {
+            System.err.println("⚠️ EDT watchdog disabled, can't open log in " + dir + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    protected void dispatchEvent(AWTEvent event) {
+        if (depth == 0) {
+            edt = Thread.currentThread(); // AWT starts a new EDT after an uncaught exception
+        }
+
+        depth++;
+        beginSegment(System.nanoTime());
+        try {
+            super.dispatchEvent(event);
+        } finally {
+            long now = System.nanoTime();
+            long elapsed = now - dispatchStart;
+            if (elapsed > budgetNanos) {
+                finished.add(new Stall(dispatchSeq, elapsed, describe(event)));
+            }
+
+            depth--;
+            if (depth > 0) {
+                // Back in the nested loop of an outer dispatch: timed afresh from here,
+                // and paused once the loop goes back to waiting (see getNextEvent)
+                beginSegment(now);
+            } else {
+                dispatchStart = 0;
+            }
+        }
+    }
+
+    // Waiting for an event inside a nested loop is idle time, not the outer dispatch's work
+    @Override
+    public AWTEvent getNextEvent() throws InterruptedException {
+        boolean nested = depth > 0 && Thread.currentThread() == edt;
+        if (nested) {
+            dispatchStart = 0;
+        }
+        AWTEvent event = super.getNextEvent();
+        if (nested) {
+            beginSegment(System.nanoTime()); // work again: the event, or the outer dispatch once the loop ends
+        }
+        return event;
+    }
+
+    private void beginSegment(long now) {
+        dispatchSeq = ++nextSeq;
+        dispatchStart = now;
+    }
+
+    private static String describe(AWTEvent event) {
+        Object source = event.getSource();
+        return event.getClass().getName() + " id=" + event.getID()
+                + (source != null ? " from " + source.getClass().getName() : "");
+    }
+
+    private void watch() {
+        long sampledSeq = -1;
+        int samples = 0;
+        long lastSampleAt = 0;
+
+        while (true) {
+            try {
+                Thread.sleep(pollMillis);
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            long seq = dispatchSeq;
+            long start = dispatchStart;
+            long now = System.nanoTime();
+            Thread thread = edt;
+            if (start != 0 && seq == dispatchSeq && thread != null && now - start > budgetNanos) {
+                if (seq != sampledSeq) {
+                    sampledSeq = seq;
+                    samples = 0;
+                    lastSampleAt = 0;
+                }
+                // Space samples out so a long freeze shows how it progresses
+                if (samples < MAX_SAMPLES_PER_STALL && now - lastSampleAt >= budgetNanos) {
+                    logSample(seq, (now - start) / 1_000_000L, thread.getStackTrace());
+                    samples++;
+                    lastSampleAt = now;
+                }
+            }
+
+            Stall stall;
+            while ((stall = finished.poll()) != null) {
+                String message = String.format("EDT stall #%d finished after %d ms: %s",
+                        stall.seq(), stall.nanos() / 1_000_000L, stall.event());
+                LOG.warning(message);
+                System.err.println("⚠️ " + message);
+            }
+        }
+    }
+
+    private static void logSample(long seq, long elapsedMillis, StackTraceElement[] stack) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("EDT stall #").append(seq).append(" still running after ").append(elapsedMillis).append(" ms\n");
+        for (StackTraceElement frame : stack) {
+            sb.append("    at ").append(frame).append('\n');
+        }
+        LOG.log(Level.WARNING, sb.toString());
+    }
+}
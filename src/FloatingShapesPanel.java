@@ -1,66 +1,212 @@
 import javax.swing.*;
 import java.awt.*;
-import java.awt.geom.Ellipse2D;
-import java.util.ArrayList;
-import java.util.List;
+import java.awt.image.BufferedImage;
 
+/**
+ * Translucent bubbles drifting behind the menu.
+ *
+ * Particles live in parallel primitive arrays (position, velocity, size and a
+ * sprite index that encodes palette color and size bucket) and are moved every
+ * frame of the shared AnimationClock with delta-time integration, so thousands
+ * of them can drift without creating garbage. Each
+ * bubble is drawn by blitting one of a small bank of pre-rendered circle sprites
+ * (palette color x size bucket) instead of antialiasing an ellipse per frame.
+ * The whole menu sits on this panel, so a frame only repaints where bubbles
+ * moved by a pixel, bubble by bubble, at 60 frames a second (set
+ * -Demy.particles.hz for fewer).
+ */
 public class FloatingShapesPanel extends JPanel {
-    private Timer animationTimer;
-    private List<Shape> shapes;
-    private List<Point> positions;
-    private List<Color> colors;
+    public static final int DEFAULT_PARTICLES = 6;
+
+    // Diameters 20, 25, ... 45 like the original six shapes
+    private static final int SIZE_BUCKETS = 6;
+    private static final int MIN_DIAMETER = 20;
+    private static final int DIAMETER_STEP = 5;
+    private static final int PALETTE_SIZE = 16;
+    private static final int ALPHA = 100;
+
+    // Velocity wanders randomly and is pulled back toward zero, giving a gentle drift
+    private static final float NOISE = 60f;
+    private static final float DAMPING = 1.5f;
+    // Steps a second; 60 moves with every frame of the clock, lower rates save the EDT on slow machines
+    private static final int DEFAULT_DRIFT_HZ = 60;
+
+    private final AnimationClock.Animation drift = this::drift;
+    private final int driftMs;
+
+    private final int count;
+    private final float[] x;
+    private final float[] y;
+    private final float[] vx;
+    private final float[] vy;
+    private final float[] size;
+    private final int[] sprite; // colorIndex * SIZE_BUCKETS + sizeBucket
+    private final int[] palette = new int[PALETTE_SIZE];
+    private boolean spawned = false;
+    private int seed;
+
+    private Image[] sprites;
+    private GraphicsConfiguration spriteConfig;
 
     public FloatingShapesPanel() {
+        this(DEFAULT_PARTICLES);
+    }
+
+    public FloatingShapesPanel(int particleCount) {
+        this(particleCount, System.nanoTime());
+    }
+
+    public FloatingShapesPanel(int particleCount, long seed) {
         setOpaque(false);
-        shapes = new ArrayList<>();
-        positions = new ArrayList<>();
-        colors = new ArrayList<>();
-
-        // Create floating shapes
-        for (int i = 0; i < 6; i++) {
-            shapes.add(new Ellipse2D.Double(0, 0, 20 + (i * 5), 20 + (i * 5)));
-            positions.add(new Point(
-                    (int)(Math.random() * 600),
-                    (int)(Math.random() * 400)
-            ));
-            colors.add(new Color(
-                    (int)(Math.random() * 255),
-                    (int)(Math.random() * 255),
-                    (int)(Math.random() * 255),
-                    100
-            ));
+        this.count = Math.max(0, particleCount);
+        int hz = Integer.getInteger("emy.particles.hz", DEFAULT_DRIFT_HZ);
+        this.driftMs = hz >= DEFAULT_DRIFT_HZ ? AnimationClock.FRAME_MS : 1000 / Math.max(1, hz);
+        this.seed = (int) (seed ^ (seed >>> 32));
+        if (this.seed == 0) this.seed = 0x9E3779B9; // xorshift must not start at zero
+
+        x = new float[count];
+        y = new float[count];
+        vx = new float[count];
+        vy = new float[count];
+        size = new float[count];
+        sprite = new int[count];
+
+        for (int c = 0; c < PALETTE_SIZE; c++) {
+            palette[c] = (ALPHA << 24)
+                    | ((int) (nextFloat() * 255) << 16)
+                    | ((int) (nextFloat() * 255) << 8)
+                    | (int) (nextFloat() * 255);
+        }
+
+        for (int i = 0; i < count; i++) {
+            int sizeBucket = i % SIZE_BUCKETS;
+            int colorIndex = (int) (nextFloat() * PALETTE_SIZE);
+            size[i] = MIN_DIAMETER + sizeBucket * DIAMETER_STEP;
+            sprite[i] = colorIndex * SIZE_BUCKETS + sizeBucket;
+        }
+    }
+
+    public int getParticleCount() {
+        return count;
+    }
+
+    // Milliseconds between drift steps
+    int getDriftMs() {
+        return driftMs;
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        AnimationClock.getInstance().add(drift, this, driftMs);
+    }
+
+    @Override
+    public void removeNotify() {
+        AnimationClock.getInstance().remove(drift);
+        super.removeNotify();
+    }
+
+    // xorshift32: fast, seedable and allocation free, plenty for decoration
+    private float nextFloat() {
+        int s = seed;
+        s ^= s << 13;
+        s ^= s >>> 17;
+        s ^= s << 5;
+        seed = s;
+        return (s >>> 8) * 0x1.0p-24f;
+    }
+
+    private void spawnIfNeeded(int width, int height) {
+        if (spawned || width <= 0 || height <= 0) return;
+        for (int i = 0; i < count; i++) {
+            x[i] = nextFloat() * width;
+            y[i] = nextFloat() * height;
+        }
+        spawned = true;
+    }
+
+    // Package-private so the benchmarks can step it without a clock
+    boolean drift(float dt) {
+        int width = getWidth();
+        int height = getHeight();
+        if (!spawned) {
+            spawnIfNeeded(width, height);
+            if (spawned) AnimationClock.getInstance().requestRepaint(this);
+            return true;
         }
 
-        animationTimer = new Timer(100, e -> {
-            for (Point pos : positions) {
-                pos.x += (Math.random() - 0.5) * 4;
-                pos.y += (Math.random() - 0.5) * 4;
+        AnimationClock clock = AnimationClock.getInstance();
+        float kick = NOISE * (float) Math.sqrt(dt);
+        float damping = DAMPING * dt;
+        for (int i = 0; i < count; i++) {
+            int oldX = (int) x[i];
+            int oldY = (int) y[i];
+            vx[i] += (nextFloat() - 0.5f) * kick - vx[i] * damping;
+            vy[i] += (nextFloat() - 0.5f) * kick - vy[i] * damping;
+            x[i] += vx[i] * dt;
+            y[i] += vy[i] * dt;
+
+            // Keep shapes on screen, sliding fully off one edge before coming back on the other
+            float s = size[i];
+            if (x[i] < -s) x[i] += width + s;
+            if (x[i] > width) x[i] -= width + s;
+            if (y[i] < -s) y[i] += height + s;
+            if (y[i] > height) y[i] -= height + s;
 
-                // Keep shapes on screen
-                if (pos.x < 0) pos.x = getWidth();
-                if (pos.x > getWidth()) pos.x = 0;
-                if (pos.y < 0) pos.y = getHeight();
-                if (pos.y > getHeight()) pos.y = 0;
+            // Sprites are drawn at whole pixels, so most frames a bubble hasn't visibly moved
+            int newX = (int) x[i];
+            int newY = (int) y[i];
+            if (newX == oldX && newY == oldY) continue;
+            int d = (int) s;
+            if (Math.abs(newX - oldX) < d && Math.abs(newY - oldY) < d) {
+                clock.requestRepaint(this, Math.min(oldX, newX), Math.min(oldY, newY),
+                        d + Math.abs(newX - oldX), d + Math.abs(newY - oldY));
+            } else {
+                // Wrapped to the other edge
+                clock.requestRepaint(this, oldX, oldY, d, d);
+                clock.requestRepaint(this, newX, newY, d, d);
             }
-            repaint();
-        });
-        animationTimer.start();
+        }
+        return true;
     }
 
     @Override
     protected void paintComponent(Graphics g) {
+        long hudStart = PerformanceHud.beginPaint();
         super.paintComponent(g);
-        Graphics2D g2 = (Graphics2D) g.create();
-        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-
-        for (int i = 0; i < shapes.size(); i++) {
-            g2.setColor(colors.get(i));
-            Point pos = positions.get(i);
-            Shape shape = shapes.get(i);
-            g2.translate(pos.x, pos.y);
-            g2.fill(shape);
-            g2.translate(-pos.x, -pos.y);
+        spawnIfNeeded(getWidth(), getHeight());
+        if (spawned) {
+            GraphicsConfiguration gc = getGraphicsConfiguration();
+            if (sprites == null || gc != spriteConfig) {
+                sprites = renderSprites(gc);
+                spriteConfig = gc;
+            }
+
+            for (int i = 0; i < count; i++) {
+                g.drawImage(sprites[sprite[i]], (int) x[i], (int) y[i], null);
+            }
+        }
+        PerformanceHud.endPaint(PerformanceHud.Slot.PARTICLES, hudStart);
+    }
+
+    private Image[] renderSprites(GraphicsConfiguration gc) {
+        Image[] bank = new Image[PALETTE_SIZE * SIZE_BUCKETS];
+        for (int c = 0; c < PALETTE_SIZE; c++) {
+            Color color = new Color(palette[c], true);
+            for (int b = 0; b < SIZE_BUCKETS; b++) {
+                int diameter = MIN_DIAMETER + b * DIAMETER_STEP;
+                BufferedImage image = gc != null
+                        ? gc.createCompatibleImage(diameter, diameter, Transparency.TRANSLUCENT)
+                        : new BufferedImage(diameter, diameter, BufferedImage.TYPE_INT_ARGB_PRE);
+                Graphics2D g2 = image.createGraphics();
+                g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                g2.setColor(color);
+                g2.fillOval(0, 0, diameter, diameter);
+                g2.dispose();
+                bank[c * SIZE_BUCKETS + b] = image;
+            }
         }
-        g2.dispose();
+        return bank;
     }
-}
\ No newline at end of file
+}
@@ -1,26 +1,31 @@
 import javax.swing.*;
 import javax.swing.border.*;
 import java.awt.*;
-import java.awt.event.ActionEvent;
-import java.awt.event.KeyEvent;
 import java.awt.image.BufferedImage;
-import java.io.InputStream;
-import java.io.IOException;
-import javax.imageio.ImageIO;
 
-public class GameFrame extends JFrame {
+/**
+ * The main menu scene: title, portrait, level choice and the start button.
+ */
+public class GameFrame extends JPanel implements Scene {
+    private static final String PORTRAIT_RESOURCE = "/music/IMG_0825.png";
+    private static final Insets PORTRAIT_CROP = new Insets(50, 0, 50, 0);
+    private static final int PORTRAIT_WIDTH = 350;
+    private static final int PORTRAIT_HEIGHT = 280;
+    private static ImageIcon placeholderIcon;
+
     private JLabel modeSelectedLabel;
+    private JLabel portraitLabel;
+    private GraphicsConfiguration portraitGc; // the screen the portrait was made compatible with
     private GradientPanel mainPanel;
 
-    private SoundPlayer soundPlayer = new SoundPlayer();
-    private Timer fadeInTimer;
-    private float frameAlpha = 0.0f;
+    private final SoundPlayer soundPlayer = SceneManager.getInstance().getSoundPlayer();
     private String selectedDifficulty = "Easy"; // Default selection
 
     private void initializeAudio() {
         try {
             System.out.println("🎵 Attempting to load background music...");
             soundPlayer.playBackgroundMusic("music/background_music.wav");
+            soundPlayer.preloadSynthEffects();
         } catch (Exception e) {
             System.out.println("⚠️ Audio failed: " + e.getMessage());
             System.out.println("🔇 Continuing without audio");
@@ -28,11 +33,9 @@ public class GameFrame extends JFrame {
     }
 
     public GameFrame() {
-        setupWindow();
-        initializeAudio(); // Only call once here
+        setPreferredSize(new Dimension(900, 770));
         try {
             createUI();
-            animateEntrance();
         } catch (Exception e) {
             JOptionPane.showMessageDialog(null,
                     "Error initializing application: " + e.getMessage(),
@@ -40,30 +43,40 @@ public class GameFrame extends JFrame {
                     JOptionPane.ERROR_MESSAGE);
             System.exit(1);
         }
+        // Fired when the menu lands in the window and when the window moves to another screen
+        addPropertyChangeListener("graphicsConfiguration", e -> loadPortrait());
     }
 
-    private void setupWindow() {
-        setTitle("Play and Learn With Emy Girl - Enhanced Edition");
-        setSize(900, 800); // Increased from 700 to 800
-        setMinimumSize(new Dimension(900, 800)); // Ensure minimum size
-        setDefaultCloseOperation(EXIT_ON_CLOSE);
-        setLocationRelativeTo(null);
-        setResizable(true); // Changed to true to allow user adjustment if needed
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        loadPortrait();
     }
 
-    private void setupKeyListener() {
-        KeyStroke escapeKeyStroke = KeyStroke.getKeyStroke(KeyEvent.VK_ESCAPE, 0, false);
-        getRootPane().getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW).put(escapeKeyStroke, "ESCAPE");
-        getRootPane().getActionMap().put("ESCAPE", new AbstractAction() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                GraphicsEnvironment ge = GraphicsEnvironment.getLocalGraphicsEnvironment();
-                GraphicsDevice gd = ge.getDefaultScreenDevice();
-                if (gd.getFullScreenWindow() != null) {
-                    exitFullScreen();
-                }
-            }
-        });
+    @Override
+    public JComponent getView() {
+        return this;
+    }
+
+    @Override
+    public String getTitle() {
+        return "Play and Learn With Emy Girl - Enhanced Edition";
+    }
+
+    // The track stays loaded while a game is played, so coming back only resumes it
+    @Override
+    public void onEnter() {
+        if (soundPlayer.hasBackgroundMusic()) {
+            soundPlayer.resumeBackgroundMusic();
+        } else {
+            initializeAudio();
+        }
+        prewarmSelectedMode();
+    }
+
+    @Override
+    public void onExit() {
+        soundPlayer.pauseBackgroundMusic();
     }
 
     private void createUI() throws Exception {
@@ -71,14 +84,14 @@ public class GameFrame extends JFrame {
         setLayout(new BorderLayout());
 
         // Background with gradient
-        mainPanel = new GradientPanel(
-                new Color(255, 182, 193),
-                new Color(255, 218, 185)
-        );
+        mainPanel = new GradientPanel(Theme.PINK, Theme.PEACH);
+        mainPanel.setRenderOffEdt(true); // resizing and full screen shouldn't stall the EDT
         mainPanel.setLayout(new BorderLayout());
 
         // Add floating shapes
-        FloatingShapesPanel shapesPanel = new FloatingShapesPanel();
+        // Kiosk displays can ask for a richer background with -Demy.particles=2000
+        FloatingShapesPanel shapesPanel = new FloatingShapesPanel(
+                Integer.getInteger("emy.particles", FloatingShapesPanel.DEFAULT_PARTICLES));
         mainPanel.add(shapesPanel, BorderLayout.CENTER);
 
         // Content panel
@@ -127,8 +140,8 @@ public class GameFrame extends JFrame {
         panel.setLayout(new BoxLayout(panel, BoxLayout.Y_AXIS));
 
         JLabel difficultyLabel = new JLabel("Choose Your Level:");
-        difficultyLabel.setFont(new Font("Comic Sans MS", Font.BOLD, 20));
-        difficultyLabel.setForeground(new Color(102, 51, 153));
+        difficultyLabel.setFont(Theme.SUBHEADING_FONT);
+        difficultyLabel.setForeground(Theme.PURPLE);
         difficultyLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
         panel.add(difficultyLabel);
 
@@ -138,38 +151,41 @@ public class GameFrame extends JFrame {
         buttonsPanel.setOpaque(false);
 
         RoundedButton easyButton = new RoundedButton("🟢 Easy Mode",
-                new Color(76, 175, 80), new Color(56, 142, 60));
-        easyButton.setFont(new Font("Arial", Font.BOLD, 16));
+                Theme.GREEN, Theme.GREEN_DARK);
+        easyButton.setFont(Theme.BUTTON_FONT);
         easyButton.setForeground(Color.WHITE);
         easyButton.setPreferredSize(new Dimension(150, 50));
         easyButton.addActionListener(e -> {
             playClickSound();
             selectedDifficulty = "Easy";
             updateDifficultySelection(easyButton);
+            prewarmSelectedMode();
             modeSelectedLabel.setText("Easy Mode Selected");
         });
 
         RoundedButton mediumButton = new RoundedButton("🟡 Medium Mode",
-                new Color(255, 152, 0), new Color(245, 124, 0));
-        mediumButton.setFont(new Font("Arial", Font.BOLD, 16));
+                Theme.ORANGE, Theme.ORANGE_DARK);
+        mediumButton.setFont(Theme.BUTTON_FONT);
         mediumButton.setForeground(Color.WHITE);
         mediumButton.setPreferredSize(new Dimension(150, 50));
         mediumButton.addActionListener(e -> {
             playClickSound();
             selectedDifficulty = "Medium";
             updateDifficultySelection(mediumButton);
+            prewarmSelectedMode();
             modeSelectedLabel.setText("Medium Mode Selected");
         });
 
         RoundedButton hardButton = new RoundedButton("🔴 Hard Mode",
-                new Color(244, 67, 54), new Color(211, 47, 47));
-        hardButton.setFont(new Font("Arial", Font.BOLD, 16));
+                Theme.RED, Theme.RED_DARK);
+        hardButton.setFont(Theme.BUTTON_FONT);
         hardButton.setForeground(Color.WHITE);
         hardButton.setPreferredSize(new Dimension(150, 50));
         hardButton.addActionListener(e -> {
             playClickSound();
             selectedDifficulty = "Hard";
             updateDifficultySelection(hardButton);
+            prewarmSelectedMode();
             modeSelectedLabel.setText("Hard Mode Selected");
         });
 
@@ -184,7 +200,7 @@ public class GameFrame extends JFrame {
 
         // Selected mode label (moved here instead of bottom of frame)
         modeSelectedLabel = new JLabel(" ", JLabel.CENTER);
-        modeSelectedLabel.setFont(new Font("Comic Sans MS", Font.BOLD, 18));
+        modeSelectedLabel.setFont(Theme.PLAYFUL_FONT);
         modeSelectedLabel.setForeground(Color.MAGENTA);
         modeSelectedLabel.setMaximumSize(new Dimension(300, 30));
         modeSelectedLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
@@ -203,10 +219,12 @@ public class GameFrame extends JFrame {
             if (comp instanceof RoundedButton) {
                 RoundedButton btn = (RoundedButton) comp;
                 btn.setBorder(null);
+                btn.setSelected(false);
             }
         }
 
         // Highlight selected button
+        selectedButton.setSelected(true);
         selectedButton.setBorder(BorderFactory.createCompoundBorder(
                 BorderFactory.createLineBorder(Color.WHITE, 3),
                 BorderFactory.createEmptyBorder(2, 2, 2, 2)
@@ -218,28 +236,34 @@ public class GameFrame extends JFrame {
         panel.setOpaque(false);
         panel.setLayout(new BorderLayout());
 
-        // Try to load the image, use placeholder if not found
-        ImageIcon imageIcon = loadImageIcon();
-
-        JLabel imageLabel = new JLabel(imageIcon);
-        imageLabel.setBorder(createImageBorder());
-        panel.add(imageLabel, BorderLayout.CENTER);
+        // Show the placeholder until the menu is on screen and the photo has been decoded and scaled
+        portraitLabel = new JLabel(getPlaceholderIcon());
+        portraitLabel.setBorder(createImageBorder());
+        panel.add(portraitLabel, BorderLayout.CENTER);
         return panel;
     }
 
-    private ImageIcon loadImageIcon() throws IOException {
-        try (InputStream in = getClass().getResourceAsStream("/music/IMG_0825.png")) {
-            if (in != null) {
-                BufferedImage full = ImageIO.read(in);
-                int topCrop = 50, bottomCrop = 50;
-                BufferedImage cropped = full.getSubimage(
-                        0, topCrop, full.getWidth(), full.getHeight() - topCrop - bottomCrop
-                );
-                Image scaled = cropped.getScaledInstance(350, 280, Image.SCALE_SMOOTH);
-                return new ImageIcon(scaled);
-            }
+    // The photo is copied into an image compatible with the screen, so it waits until there is one
+    private void loadPortrait() {
+        GraphicsConfiguration gc = getGraphicsConfiguration();
+        if (gc == null || gc == portraitGc) return;
+
+        portraitGc = gc;
+        BufferedImage portrait = ImagePipeline.load(PORTRAIT_RESOURCE, PORTRAIT_CROP, PORTRAIT_WIDTH, PORTRAIT_HEIGHT,
+                gc, image -> {
+                    if (gc == portraitGc) portraitLabel.setIcon(new ImageIcon(image));
+                });
+        if (portrait != null) {
+            portraitLabel.setIcon(new ImageIcon(portrait));
+        }
+    }
+
+    // Drawn once and shared by every menu
+    private static ImageIcon getPlaceholderIcon() {
+        if (placeholderIcon == null) {
+            placeholderIcon = createPlaceholderImage();
         }
-        return createPlaceholderImage();
+        return placeholderIcon;
     }
 
     private Border createImageBorder() {
@@ -251,15 +275,15 @@ public class GameFrame extends JFrame {
                         g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
 
                         // Shadow
-                        g2.setColor(new Color(0, 0, 0, 50));
+                        g2.setColor(Theme.SHADOW);
                         g2.fillRoundRect(x + 5, y + 5, width - 10, height - 10, 20, 20);
 
                         // Main border
-                        g2.setColor(new Color(255, 255, 255, 200));
+                        g2.setColor(Theme.FRAME_WHITE);
                         g2.fillRoundRect(x, y, width - 5, height - 5, 20, 20);
 
-                        g2.setColor(new Color(255, 107, 107));
-                        g2.setStroke(new BasicStroke(3));
+                        g2.setColor(Theme.CORAL);
+                        g2.setStroke(Theme.BORDER_STROKE);
                         g2.drawRoundRect(x + 2, y + 2, width - 9, height - 9, 20, 20);
 
                         g2.dispose();
@@ -274,18 +298,18 @@ public class GameFrame extends JFrame {
         );
     }
 
-    private ImageIcon createPlaceholderImage() {
-        BufferedImage placeholder = new BufferedImage(350, 280, BufferedImage.TYPE_INT_ARGB);
+    private static ImageIcon createPlaceholderImage() {
+        BufferedImage placeholder = new BufferedImage(PORTRAIT_WIDTH, PORTRAIT_HEIGHT, BufferedImage.TYPE_INT_ARGB);
         Graphics2D g2 = placeholder.createGraphics();
         g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
 
         // Gradient background
-        GradientPaint gradient = new GradientPaint(0, 0, new Color(255, 182, 193), 350, 280, new Color(255, 218, 185));
+        GradientPaint gradient = new GradientPaint(0, 0, Theme.PINK, 350, 280, Theme.PEACH);
         g2.setPaint(gradient);
         g2.fillRoundRect(0, 0, 350, 280, 20, 20);
 
         // Happy face
-        g2.setColor(new Color(255, 107, 107));
+        g2.setColor(Theme.CORAL);
         g2.fillOval(120, 80, 25, 25);  // Left eye
         g2.fillOval(205, 80, 25, 25);  // Right eye
 
@@ -294,8 +318,8 @@ public class GameFrame extends JFrame {
         g2.drawArc(125, 140, 100, 60, 0, -180);
 
         // Text
-        g2.setFont(new Font("Comic Sans MS", Font.BOLD, 24));
-        g2.setColor(new Color(255, 107, 107));
+        g2.setFont(Theme.HEADING_FONT);
+        g2.setColor(Theme.CORAL);
         FontMetrics fm = g2.getFontMetrics();
         String text = "Emy Girl";
         int textWidth = fm.stringWidth(text);
@@ -312,8 +336,8 @@ public class GameFrame extends JFrame {
 
         // Start Game button - NOW LAUNCHES BASED ON SELECTED DIFFICULTY
         RoundedButton startButton = new RoundedButton("🎮 Start Game",
-                new Color(76, 175, 80), new Color(56, 142, 60));
-        startButton.setFont(new Font("Arial", Font.BOLD, 18));
+                Theme.GREEN, Theme.GREEN_DARK);
+        startButton.setFont(Theme.BUTTON_LARGE_FONT);
         startButton.setForeground(Color.WHITE);
         startButton.setPreferredSize(new Dimension(180, 55));
         startButton.addActionListener(e -> {
@@ -323,8 +347,8 @@ public class GameFrame extends JFrame {
 
         // Settings button (now for other settings like volume, etc.)
         RoundedButton settingsButton = new RoundedButton("⚙️ Settings",
-                new Color(33, 150, 243), new Color(25, 118, 210));
-        settingsButton.setFont(new Font("Arial", Font.BOLD, 16));
+                Theme.BLUE, Theme.BLUE_DARK);
+        settingsButton.setFont(Theme.BUTTON_FONT);
         settingsButton.setForeground(Color.WHITE);
         settingsButton.setPreferredSize(new Dimension(140, 45));
         settingsButton.addActionListener(e -> {
@@ -334,8 +358,8 @@ public class GameFrame extends JFrame {
 
         // Mute/Unmute button
         RoundedButton muteButton = new RoundedButton("🔇 Mute",
-                new Color(255, 87, 34), new Color(230, 74, 25));
-        muteButton.setFont(new Font("Arial", Font.BOLD, 16));
+                Theme.DEEP_ORANGE, Theme.DEEP_ORANGE_DARK);
+        muteButton.setFont(Theme.BUTTON_FONT);
         muteButton.setForeground(Color.WHITE);
         muteButton.setPreferredSize(new Dimension(140, 45));
         muteButton.addActionListener(e -> {
@@ -345,8 +369,8 @@ public class GameFrame extends JFrame {
 
         // Help button
         RoundedButton helpButton = new RoundedButton("❓ Help",
-                new Color(255, 152, 0), new Color(245, 124, 0));
-        helpButton.setFont(new Font("Arial", Font.BOLD, 16));
+                Theme.ORANGE, Theme.ORANGE_DARK);
+        helpButton.setFont(Theme.BUTTON_FONT);
         helpButton.setForeground(Color.WHITE);
         helpButton.setPreferredSize(new Dimension(100, 45));
         helpButton.addActionListener(e -> {
@@ -364,51 +388,37 @@ public class GameFrame extends JFrame {
 
     // NEW METHOD: Launch game based on selected difficulty
     private void startGameBasedOnDifficulty() {
-        Timer fadeOut = new Timer(30, e -> {
-            frameAlpha -= 0.08f;
-            if (frameAlpha <= 0.0f) {
-                frameAlpha = 0.0f;
-                ((Timer)e.getSource()).stop();
-
-                // IMPORTANT: Stop the background music before disposing
-                soundPlayer.stopBackgroundMusic();
-                dispose();
-
-                SwingUtilities.invokeLater(() -> {
-                    try {
-                        if (selectedDifficulty.equals("Easy")) {
-                            new ShapeMatchingGame(); // TODO: Create this class
-                        } else if (selectedDifficulty.equals("Medium")) {
-                            new NumberMatchingGame(); // TODO: Create this class
-                        } else if (selectedDifficulty.equals("Hard")) {
-                            new MathChallengeGame(); // TODO: Rename EasyMathGame to this
-                        }
-                    } catch (Exception ex) {
-                        JOptionPane.showMessageDialog(null,
-                                "Game class not found: " + selectedDifficulty + " Mode\n" +
-                                        "Please create the corresponding game class.",
-                                "Game Launch Error",
-                                JOptionPane.ERROR_MESSAGE);
-                    }
-                });
-            }
-            setOpacity(frameAlpha);
-        });
-        fadeOut.start();
+        SceneManager.getInstance().show(sceneForDifficulty(selectedDifficulty));
+    }
+
+    // Build the chosen mode's round while the player is still on the menu
+    private void prewarmSelectedMode() {
+        SceneManager.getInstance().prewarm(sceneForDifficulty(selectedDifficulty));
+    }
+
+    static SceneManager.SceneId sceneForDifficulty(String difficulty) {
+        switch (difficulty) {
+            case "Medium":
+                return SceneManager.SceneId.NUMBER_MATCHING;
+            case "Hard":
+                return SceneManager.SceneId.MATH_CHALLENGE;
+            default:
+                return SceneManager.SceneId.SHAPE_MATCHING;
+        }
     }
 
     private void createStatusBar() {
         JPanel statusBar = new JPanel(new BorderLayout());
-        statusBar.setBackground(new Color(255, 107, 107, 100));
+        statusBar.setBackground(Theme.STATUS_BAR);
         statusBar.setBorder(new EmptyBorder(6, 15, 6, 15)); // Reduced padding
 
         JLabel welcomeLabel = new JLabel("Welcome! Choose your level and start learning! 🌟");
-        welcomeLabel.setFont(new Font("Arial", Font.PLAIN, 14));
-        welcomeLabel.setForeground(new Color(102, 51, 153));
+        welcomeLabel.setFont(Theme.STATUS_FONT);
+        welcomeLabel.setForeground(Theme.PURPLE);
 
         JLabel versionLabel = new JLabel("Enhanced v2.0");
-        versionLabel.setFont(new Font("Arial", Font.ITALIC, 12));
-        versionLabel.setForeground(new Color(102, 51, 153));
+        versionLabel.setFont(Theme.CAPTION_FONT);
+        versionLabel.setForeground(Theme.PURPLE);
 
         statusBar.add(welcomeLabel, BorderLayout.WEST);
         statusBar.add(versionLabel, BorderLayout.EAST);
@@ -416,22 +426,6 @@ public class GameFrame extends JFrame {
         add(statusBar, BorderLayout.SOUTH);
     }
 
-    private void animateEntrance() {
-        setUndecorated(true);
-        setOpacity(0.0f);
-        setVisible(true);
-
-        fadeInTimer = new Timer(30, e -> {
-            frameAlpha += 0.05f;
-            if (frameAlpha >= 1.0f) {
-                frameAlpha = 1.0f;
-                fadeInTimer.stop();
-            }
-            setOpacity(frameAlpha);
-        });
-        fadeInTimer.start();
-    }
-
     private void showSettings() {
         String[] options = {"Sound On/Off", "Reset Progress"};
         int choice = JOptionPane.showOptionDialog(this,
@@ -471,64 +465,6 @@ public class GameFrame extends JFrame {
         }
     }
 
-    private void toggleFullScreen() {
-        GraphicsEnvironment ge = GraphicsEnvironment.getLocalGraphicsEnvironment();
-        GraphicsDevice gd = ge.getDefaultScreenDevice();
-
-        if (gd.isFullScreenSupported()) {
-            if (gd.getFullScreenWindow() == null) {
-                // Enter full screen
-                try {
-                    setVisible(false);
-                    dispose();
-                    setUndecorated(true);
-                    setResizable(false);
-                    gd.setFullScreenWindow(this);
-                    setVisible(true);
-                    JOptionPane.showMessageDialog(this,
-                            "✅ Full Screen Mode ON\nPress ESC to exit full screen",
-                            "Display Settings",
-                            JOptionPane.INFORMATION_MESSAGE);
-                } catch (Exception e) {
-                    JOptionPane.showMessageDialog(this,
-                            "❌ Could not enter full screen mode: " + e.getMessage(),
-                            "Display Error",
-                            JOptionPane.ERROR_MESSAGE);
-                    // Restore window if full screen failed
-                    gd.setFullScreenWindow(null);
-                    setUndecorated(false);
-                    setResizable(true);
-                    setVisible(true);
-                }
-            } else {
-                // Exit full screen
-                exitFullScreen();
-            }
-        } else {
-            JOptionPane.showMessageDialog(this,
-                    "❌ Full screen mode is not supported on this system",
-                    "Display Settings",
-                    JOptionPane.WARNING_MESSAGE);
-        }
-    }
-
-    private void exitFullScreen() {
-        GraphicsEnvironment ge = GraphicsEnvironment.getLocalGraphicsEnvironment();
-        GraphicsDevice gd = ge.getDefaultScreenDevice();
-
-        if (gd.getFullScreenWindow() != null) {
-            gd.setFullScreenWindow(null);
-            setUndecorated(false);
-            setResizable(true);
-            setSize(900, 800);
-            setLocationRelativeTo(null);
-            JOptionPane.showMessageDialog(this,
-                    "✅ Full Screen Mode OFF",
-                    "Display Settings",
-                    JOptionPane.INFORMATION_MESSAGE);
-        }
-    }
-
     private void resetProgress() {
         int confirm = JOptionPane.showConfirmDialog(this,
                 "⚠️ Are you sure you want to reset all progress?\n" +
@@ -543,6 +479,7 @@ public class GameFrame extends JFrame {
 
             // Reset UI to show Easy mode selected
             updateDifficultyToEasy();
+            prewarmSelectedMode();
 
             // Here you would typically clear saved game data, scores, etc.
             // For now, we'll just show a confirmation
@@ -596,10 +533,11 @@ public class GameFrame extends JFrame {
     }
 
     private void playClickSound() {
-        Toolkit.getDefaultToolkit().beep();
+        soundPlayer.playSynthEffect(Synthesizer.Preset.CLICK);
     }
 
     public static void main(String[] args) {
+        EdtWatchdog.install(); // logs anything that blocks the EDT past its budget
         SwingUtilities.invokeLater(() -> {
             try {
                 UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
@@ -607,7 +545,7 @@ public class GameFrame extends JFrame {
                 System.err.println("Could not set system look and feel: " + e.getMessage());
             }
 
-            new GameFrame();
+            SceneManager.getInstance().show(SceneManager.SceneId.MENU);
         });
     }
-}
\ No newline at end of file
+}
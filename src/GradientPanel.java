@@ -1,28 +1,157 @@
 import javax.swing.*;
 import java.awt.*;
+import java.awt.image.BufferedImage;
 
+/**
+ * Vertical two-color gradient background.
+ *
+ * The gradient is rendered once per size into an image compatible with the
+ * screen and simply copied on every repaint after that, which matters because
+ * the animated panels on top of it repaint many times a second. The image is
+ * thrown away when the panel is resized, moved to another screen or given new
+ * colors. With setRenderOffEdt(true) the first render at a new size happens on
+ * a background thread and the gradient is painted directly until it is ready.
+ */
 public class GradientPanel extends JPanel {
     private Color color1;
     private Color color2;
 
+    private BufferedImage backing;
+    private GraphicsConfiguration backingConfig;
+    private boolean renderOffEdt = false;
+    private SwingWorker<BufferedImage, Void> pendingRender;
+    private int generation = 0; // bumped on every invalidate so stale renders are dropped
+
     public GradientPanel(Color c1, Color c2) {
         this.color1 = c1;
         this.color2 = c2;
         setOpaque(false);
     }
 
+    public void setColors(Color c1, Color c2) {
+        this.color1 = c1;
+        this.color2 = c2;
+        invalidateBacking();
+        repaint();
+    }
+
+    public Color getColor1() {
+        return color1;
+    }
+
+    public Color getColor2() {
+        return color2;
+    }
+
+    public void setRenderOffEdt(boolean renderOffEdt) {
+        this.renderOffEdt = renderOffEdt;
+    }
+
+    public boolean isRenderOffEdt() {
+        return renderOffEdt;
+    }
+
     @Override
     protected void paintComponent(Graphics g) {
+        long hudStart = PerformanceHud.beginPaint();
         super.paintComponent(g);
-        Graphics2D g2 = (Graphics2D) g.create();
-        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        paintBacking(g);
+        PerformanceHud.endPaint(PerformanceHud.Slot.GRADIENT, hudStart);
+    }
+
+    private void paintBacking(Graphics g) {
+        int width = getWidth();
+        int height = getHeight();
+        if (width <= 0 || height <= 0) return;
 
+        GraphicsConfiguration gc = getGraphicsConfiguration();
+        if (backing != null && (backing.getWidth() != width || backing.getHeight() != height || backingConfig != gc)) {
+            invalidateBacking();
+        }
+
+        if (backing == null) {
+            if (renderOffEdt) {
+                startBackgroundRender(gc, width, height);
+                paintGradient((Graphics2D) g, width, height);
+                return;
+            }
+            backing = renderGradient(gc, width, height, color1, color2);
+            backingConfig = gc;
+        }
+
+        g.drawImage(backing, 0, 0, null);
+    }
+
+    private void startBackgroundRender(GraphicsConfiguration gc, int width, int height) {
+        if (pendingRender != null) return;
+
+        int renderGeneration = generation;
+        Color c1 = color1;
+        Color c2 = color2;
+        pendingRender = new SwingWorker<>() {
+            @Override
+            protected BufferedImage doInBackground() {
+                return renderGradient(gc, width, height, c1, c2);
+            }
+
+            @Override
+            protected void done() {
+                if (pendingRender != this) return;
+                pendingRender = null;
+                if (renderGeneration != generation) {
+                    repaint(); // size or colors changed meanwhile, render again
+                    return;
+                }
+                try {
+                    backing = get();
+                    backingConfig = gc;
+                } catch (Exception e) {
+                    System.err.println("❌ Gradient render failed: " + e.getMessage());
+                    renderOffEdt = false;
+                }
+                repaint();
+            }
+        };
+        pendingRender.execute();
+    }
+
+    private void invalidateBacking() {
+        if (backing != null) {
+            backing.flush();
+        }
+        backing = null;
+        backingConfig = null;
+        generation++;
+        if (pendingRender != null) {
+            pendingRender.cancel(false);
+            pendingRender = null;
+        }
+    }
+
+    private static BufferedImage renderGradient(GraphicsConfiguration gc, int width, int height, Color c1, Color c2) {
+        int transparency = (c1.getAlpha() == 255 && c2.getAlpha() == 255)
+                ? Transparency.OPAQUE : Transparency.TRANSLUCENT;
+        BufferedImage image = gc != null
+                ? gc.createCompatibleImage(width, height, transparency)
+                : new BufferedImage(width, height, transparency == Transparency.OPAQUE
+                        ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB_PRE);
+
+        Graphics2D g2 = image.createGraphics();
+        GradientPaint gradient = new GradientPaint(0, 0, c1, 0, height, c2);
+        g2.setPaint(gradient);
+        g2.fillRect(0, 0, width, height);
+        g2.dispose();
+        return image;
+    }
+
+    private void paintGradient(Graphics2D g, int width, int height) {
+        Graphics2D g2 = (Graphics2D) g.create();
         GradientPaint gradient = new GradientPaint(
                 0, 0, color1,
-                0, getHeight(), color2
+                0, height, color2
         );
         g2.setPaint(gradient);
-        g2.fillRect(0, 0, getWidth(), getHeight());
+        g2.fillRect(0, 0, width, height);
         g2.dispose();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,177 @@
+import javax.imageio.ImageIO;
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Loads classpath images off the EDT and keeps the finished result.
+ *
+ * A request names a resource, how much to crop off each edge and the size to
+ * show it at. Decoding, cropping and scaling run on a SwingWorker. Scaling
+ * halves the image with bilinear filtering until it is within a factor of two
+ * of the target and then does one last bilinear step, which looks as smooth
+ * as SCALE_SMOOTH at a fraction of the cost. The result is copied into an
+ * image compatible with the caller's GraphicsConfiguration and cached under
+ * (resource, crop, size), so asking again, e.g. when coming back to the menu,
+ * hands it over at once. Asking with another GraphicsConfiguration (the
+ * window moved to another screen) only redoes that copy, from the kept
+ * scaled image.
+ * Requests for an image that is already loading share the same work.
+ * Missing resources are remembered too. Only used from the EDT.
+ */
+public final class ImagePipeline {
+
+    private record Key(String resource, Insets crop, int width, int height) {}
+
+    // The scaled image and its copy for gc (the scaled image itself while there is no gc)
+    private record Entry(BufferedImage scaled, GraphicsConfiguration gc, BufferedImage image) {}
+
+    private static final Map<Key, Entry> cache = new HashMap<>();
+    private static final Map<Key, List<Consumer<BufferedImage>>> pending = new HashMap<>();
+    private static final Set<Key> missing = new HashSet<>();
+
+    private ImagePipeline() {
+    }
+
+    /**
+     * Returns the image right away if it is cached. Otherwise starts loading it
+     * (unless that already happened), returns null, and later calls onReady on
+     * the EDT with the image. onReady is never called if the resource is
+     * missing or can't be decoded, so callers keep whatever placeholder they show.
+     * gc may be null before the caller is on screen; the image then isn't made
+     * compatible with anything, so ask again once it has one.
+     */
+    public static BufferedImage load(String resource, Insets crop, int width, int height,
+                                     GraphicsConfiguration gc, Consumer<BufferedImage> onReady) {
+        Key key = new Key(resource, (Insets) crop.clone(), width, height);
+        Entry cached = cache.get(key);
+        if (cached != null) {
+            if (gc == null || gc == cached.gc()) {
+                return cached.image();
+            }
+            if (cached.gc() != null) {
+                cached.image().flush();
+            }
+            cached = new Entry(cached.scaled(), gc, toCompatible(cached.scaled(), gc));
+            cache.put(key, cached);
+            return cached.image();
+        }
+        if (missing.contains(key)) {
+            return null;
+        }
+
+        List<Consumer<BufferedImage>> waiting = pending.get(key);
+        if (waiting != null) {
+            waiting.add(onReady);
+            return null;
+        }
+        waiting = new ArrayList<>();
+        waiting.add(onReady);
+        pending.put(key, waiting);
+
+        new SwingWorker<Entry, Void>() {
+            @Override
+            protected Entry doInBackground() throws IOException {
+                BufferedImage scaled = decodeAndScale(key);
+                return scaled == null ? null : new Entry(scaled, gc, toCompatible(scaled, gc));
+            }
+
+            @Override
+            protected void done() {
+                List<Consumer<BufferedImage>> callbacks = pending.remove(key);
+                Entry entry = null;
+                try {
+                    entry = get();
+                } catch (Exception e) {
+                    System.err.println("❌ Couldn't load " + key.resource() + ": " + e.getMessage());
+                }
+
+                if (entry == null) {
+                    missing.add(key);
+                    return;
+                }
+                cache.put(key, entry);
+                for (Consumer<BufferedImage> callback : callbacks) {
+                    callback.accept(entry.image());
+                }
+            }
+        }.execute();
+        return null;
+    }
+
+    /** Drops every cached image, e.g. after the screen setup changed. */
+    public static void clear() {
+        for (Entry entry : cache.values()) {
+            entry.image().flush();
+        }
+        cache.clear();
+        missing.clear();
+    }
+
+    private static BufferedImage decodeAndScale(Key key) throws IOException {
+        BufferedImage full;
+        try (InputStream in = ImagePipeline.class.getResourceAsStream(key.resource())) {
+            if (in == null) {
+                System.out.println("⚠️ Image not found: " + key.resource());
+                return null;
+            }
+            full = ImageIO.read(in);
+        }
+        if (full == null) {
+            throw new IOException("unsupported image format");
+        }
+
+        Insets crop = key.crop();
+        int cropWidth = full.getWidth() - crop.left - crop.right;
+        int cropHeight = full.getHeight() - crop.top - crop.bottom;
+        if (cropWidth <= 0 || cropHeight <= 0) {
+            throw new IOException("crop " + crop + " leaves nothing of a " + full.getWidth() + "x" + full.getHeight() + " image");
+        }
+        BufferedImage cropped = full.getSubimage(crop.left, crop.top, cropWidth, cropHeight);
+
+        return scaleDown(cropped, key.width(), key.height());
+    }
+
+    // Halve while more than twice too big, then one final step, all bilinear
+    static BufferedImage scaleDown(BufferedImage source, int targetWidth, int targetHeight) {
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        do {
+            width = width > targetWidth * 2 ? width / 2 : targetWidth;
+            height = height > targetHeight * 2 ? height / 2 : targetHeight;
+            current = drawScaled(current, width, height);
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    private static BufferedImage drawScaled(BufferedImage source, int width, int height) {
+        BufferedImage step = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D g2 = step.createGraphics();
+        g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g2.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        g2.drawImage(source, 0, 0, width, height, null);
+        g2.dispose();
+        return step;
+    }
+
+    private static BufferedImage toCompatible(BufferedImage image, GraphicsConfiguration gc) {
+        if (gc == null) return image;
+
+        BufferedImage compatible = gc.createCompatibleImage(image.getWidth(), image.getHeight(), image.getTransparency());
+        Graphics2D g2 = compatible.createGraphics();
+        g2.setComposite(AlphaComposite.Src);
+        g2.drawImage(image, 0, 0, null);
+        g2.dispose();
+        return compatible;
+    }
+}
@@ -4,6 +4,7 @@ import javax.swing.JOptionPane;
 
 public class Main {
     public static void main(String[] args) {
+        EdtWatchdog.install(); // logs anything that blocks the EDT past its budget
         SwingUtilities.invokeLater(() -> {
             try {
                 UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
@@ -13,7 +14,7 @@ public class Main {
             }
 
             try {
-                new GameFrame();
+                SceneManager.getInstance().show(SceneManager.SceneId.MENU);
             } catch (Exception e) {
                 JOptionPane.showMessageDialog(null,
                         "Failed to start application: " + e.getMessage(),
@@ -1,33 +1,61 @@
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
 
-public class MathChallengeGame extends JFrame {
+/**
+ * Hard mode scene: addition and subtraction questions with three answer choices.
+ */
+public class MathChallengeGame extends JPanel implements Scene.Preparable<List<MathChallengeGame.Question>> {
+    // Questions built at the start of a round; later ones are made as needed
+    public static final int QUESTION_BATCH = 10;
+
+    /** The question text, its answer and the three choices in button order. */
+    record Question(String text, int correctAnswer, int[] choices) {}
+
     private int correctAnswer;
     private int score = 0;
     private JLabel questionLabel;
     private JLabel feedbackLabel;
+    private final JButton[] buttons;
     private final Random rand = new Random();
+    private Timer nextQuestionDelay;
+    private final SoundPlayer soundPlayer = SceneManager.getInstance().getSoundPlayer();
+    private final ArrayDeque<Question> upcoming = new ArrayDeque<>();
+    private boolean batchIsFresh; // prepared but not played yet
 
     public MathChallengeGame() {
-        setTitle("🔴 Hard Mode - Math Challenge with Emy Girl");
-        setSize(600, 400);
-        setDefaultCloseOperation(EXIT_ON_CLOSE);
-        setLocationRelativeTo(null);
-        setLayout(new BorderLayout());
+        super(new BorderLayout());
+        setPreferredSize(new Dimension(600, 400));
+
+        // Top: Back button and question label
+        JPanel topPanel = new JPanel(new BorderLayout());
+        JPanel backRow = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        backRow.setOpaque(false);
+        JButton backButton = new JButton("🏠 Back to Menu");
+        backButton.setFont(Theme.BUTTON_SMALL_FONT);
+        backButton.setBackground(Theme.CORAL);
+        backButton.setForeground(Color.WHITE);
+        backButton.setFocusPainted(false);
+        backButton.setBorder(BorderFactory.createEmptyBorder(8, 15, 8, 15));
+        backButton.addActionListener(e -> SceneManager.getInstance().show(SceneManager.SceneId.MENU));
+        backRow.add(backButton);
+        topPanel.add(backRow, BorderLayout.NORTH);
 
-        // Top: Question label
         questionLabel = new JLabel("", JLabel.CENTER);
         questionLabel.setFont(new Font("Comic Sans MS", Font.BOLD, 28));
-        add(questionLabel, BorderLayout.NORTH);
+        topPanel.add(questionLabel, BorderLayout.CENTER);
+        add(topPanel, BorderLayout.NORTH);
 
         // Center: Panel with 3 buttons (answer choices)
         JPanel buttonPanel = new JPanel(new GridLayout(1, 3, 20, 20));
         add(buttonPanel, BorderLayout.CENTER);
 
         // Answer buttons
-        JButton[] buttons = new JButton[3];
+        buttons = new JButton[3];
         for (int i = 0; i < 3; i++) {
             buttons[i] = new JButton();
             buttons[i].setFont(new Font("Arial", Font.BOLD, 22));
@@ -38,48 +66,95 @@ public class MathChallengeGame extends JFrame {
         feedbackLabel = new JLabel(" ", JLabel.CENTER);
         feedbackLabel.setFont(new Font("Arial", Font.ITALIC, 18));
         add(feedbackLabel, BorderLayout.SOUTH);
+    }
+
+    @Override
+    public JComponent getView() {
+        return this;
+    }
+
+    @Override
+    public String getTitle() {
+        return "🔴 Hard Mode - Math Challenge with Emy Girl";
+    }
 
-        // First question
+    @Override
+    public List<Question> prepareRound(GraphicsConfiguration gc) {
+        return buildBatch();
+    }
+
+    @Override
+    public void usePreparedRound(List<Question> questions) {
+        upcoming.clear();
+        upcoming.addAll(questions);
+        batchIsFresh = true;
+    }
+
+    @Override
+    public void onEnter() {
+        if (!batchIsFresh) {
+            upcoming.clear();
+            upcoming.addAll(buildBatch());
+        }
+        batchIsFresh = false;
+        score = 0;
+        feedbackLabel.setText(" ");
         generateNewQuestion(buttons);
+    }
 
-        setVisible(true);
+    @Override
+    public void onExit() {
+        if (nextQuestionDelay != null) {
+            nextQuestionDelay.stop();
+        }
     }
 
-    private void generateNewQuestion(JButton[] buttons) {
+    private List<Question> buildBatch() {
+        List<Question> batch = new ArrayList<>(QUESTION_BATCH);
+        for (int i = 0; i < QUESTION_BATCH; i++) {
+            batch.add(buildQuestion());
+        }
+        return batch;
+    }
+
+    // Plain data only, so it can be built on a background thread
+    private Question buildQuestion() {
         int num1 = rand.nextInt(20) + 1; // 1–20
         int num2 = rand.nextInt(20) + 1;
         boolean isAddition = rand.nextBoolean();
 
-        String operation = isAddition ? "+" : "-";
-        correctAnswer = isAddition ? num1 + num2 : num1 - num2;
-        questionLabel.setText("What is " + num1 + " " + operation + " " + num2 + "?");
-
         // Avoid negative answers in subtraction for now
         if (!isAddition && num1 < num2) {
             int temp = num1;
             num1 = num2;
             num2 = temp;
-            correctAnswer = num1 - num2;
-            questionLabel.setText("What is " + num1 + " - " + num2 + "?");
         }
+        String operation = isAddition ? "+" : "-";
+        int answer = isAddition ? num1 + num2 : num1 - num2;
+        String text = "What is " + num1 + " " + operation + " " + num2 + "?";
 
         // Generate answer choices
         int correctPos = rand.nextInt(3);
-        int wrong1 = correctAnswer + rand.nextInt(5) + 1;
-        int wrong2 = correctAnswer - (rand.nextInt(5) + 1);
-        if (wrong2 == correctAnswer || wrong2 < -10) wrong2 = correctAnswer + 7;
+        int wrong1 = answer + rand.nextInt(5) + 1;
+        int wrong2 = answer - (rand.nextInt(5) + 1);
+        if (wrong2 == answer || wrong2 < -10) wrong2 = answer + 7;
+
+        int[] choices = new int[3];
+        choices[correctPos] = answer;
+        choices[(correctPos + 1) % 3] = wrong1;
+        choices[(correctPos + 2) % 3] = wrong2;
+        return new Question(text, answer, choices);
+    }
 
-        for (int i = 0; i < 3; i++) {
-            int answer;
-            if (i == correctPos) {
-                answer = correctAnswer;
-            } else if (i == (correctPos + 1) % 3) {
-                answer = wrong1;
-            } else {
-                answer = wrong2;
-            }
+    private void generateNewQuestion(JButton[] buttons) {
+        Question question = upcoming.isEmpty() ? buildQuestion() : upcoming.poll();
+        correctAnswer = question.correctAnswer();
+        questionLabel.setText(question.text());
 
+        for (int i = 0; i < 3; i++) {
+            int answer = question.choices()[i];
             buttons[i].setText(String.valueOf(answer));
+            buttons[i].setEnabled(true);
             // Clear previous listeners
             for (ActionListener al : buttons[i].getActionListeners()) {
                 buttons[i].removeActionListener(al);
@@ -94,16 +169,19 @@ public class MathChallengeGame extends JFrame {
         if (selected == correctAnswer) {
             score++;
             feedbackLabel.setText("✅ Great job! Score: " + score);
+            soundPlayer.playSynthEffect(Synthesizer.Preset.CHIME);
         } else {
             feedbackLabel.setText("❌ Try again! That was " + selected);
+            soundPlayer.playSynthEffect(Synthesizer.Preset.BUZZ);
         }
 
-        // Delay next question
-        Timer timer = new Timer(1500, e -> {
+        // Delay next question; no more answers until it's up
+        for (JButton btn : buttons) btn.setEnabled(false);
+        nextQuestionDelay = new Timer(1500, e -> {
             feedbackLabel.setText(" ");
             generateNewQuestion(buttons);
         });
-        timer.setRepeats(false);
-        timer.start();
+        nextQuestionDelay.setRepeats(false);
+        nextQuestionDelay.start();
     }
 }
@@ -0,0 +1,167 @@
+import javax.sound.sampled.*;
+import java.io.IOException;
+import java.net.URL;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A long track played from its file a chunk at a time instead of decoded
+ * into memory.
+ *
+ * A reader thread decodes and converts the file to SoundBank.FORMAT into two
+ * chunk buffers in turn, while the SoftwareMixer plays the other one. The
+ * mixer hands a chunk back with release() once it's played, and the reader
+ * refills it. When the file ends the reader opens it again and keeps
+ * filling the same chunk, so a loop has no gap. Given a WavFile, it copies
+ * from the mapping (converting only if the format differs), so page faults
+ * land on the reader rather than the mixer thread. Memory use is the two chunks
+ * whatever the track's length. If the reader ever falls behind, the mixer
+ * plays silence for that stretch rather than waiting.
+ */
+public final class MusicStream {
+    public static final int DEFAULT_CHUNK_FRAMES = 8192; // about 190 ms at 44.1 kHz
+
+    private final Source source;
+    private final boolean loop;
+    private final byte[][] chunks = new byte[2][];
+    private final int[] lengths = new int[2];
+    private final AtomicIntegerArray full = new AtomicIntegerArray(2); // 1 while a chunk waits to be played
+    private volatile boolean ended = false; // no loop, and the last chunk has been read
+    private volatile boolean running = true;
+    private final Thread reader;
+
+    // Reader thread only
+    private AudioInputStream in;
+    private long bytesSinceOpen = 0;
+    private boolean atEnd = false;
+
+    // Mixer thread only
+    private int playing = 0;
+
+    // Opens the track from its start, converted to SoundBank.FORMAT
+    private interface Source {
+        AudioInputStream open() throws IOException, UnsupportedAudioFileException;
+    }
+
+    /**
+     * Opens the file (so a missing or unsupported one fails here, on the
+     * caller's thread) and starts reading ahead.
+     */
+    public MusicStream(URL resource, int chunkFrames, boolean loop)
+            throws IOException, UnsupportedAudioFileException {
+        this(() -> converted(AudioSystem.getAudioInputStream(resource)), chunkFrames, loop);
+    }
+
+    /** Streams a mapped WAV; reopening it for a loop touches no file at all. */
+    public MusicStream(WavFile wav, int chunkFrames, boolean loop)
+            throws IOException, UnsupportedAudioFileException {
+        this(() -> converted(wav.openStream()), chunkFrames, loop);
+    }
+
+    private MusicStream(Source source, int chunkFrames, boolean loop)
+            throws IOException, UnsupportedAudioFileException {
+        this.source = source;
+        this.loop = loop;
+        int chunkBytes = chunkFrames * SoundBank.FORMAT.getFrameSize();
+        chunks[0] = new byte[chunkBytes];
+        chunks[1] = new byte[chunkBytes];
+        in = source.open();
+
+        reader = new Thread(this::read, "music-reader");
+        reader.setDaemon(true);
+        reader.setPriority(Thread.NORM_PRIORITY + 2);
+        reader.start();
+    }
+
+    /** The chunk to play now, or null if the reader hasn't filled it yet. Mixer thread only. */
+    byte[] chunk() {
+        return full.get(playing) == 1 ? chunks[playing] : null;
+    }
+
+    /** How many bytes of chunk() hold sound. */
+    int chunkLength() {
+        return lengths[playing];
+    }
+
+    /** Hands the played chunk back to the reader and moves on to the other one. Mixer thread only. */
+    void release() {
+        full.set(playing, 0);
+        playing ^= 1;
+        LockSupport.unpark(reader);
+    }
+
+    /** Whether a non-looping stream has played to its end. */
+    boolean hasEnded() {
+        return ended && full.get(0) == 0 && full.get(1) == 0;
+    }
+
+    /** Stops the reader without waiting for it; it closes the file on its way out. */
+    public void stop() {
+        running = false;
+        LockSupport.unpark(reader);
+    }
+
+    private void read() {
+        int filling = 0;
+        try {
+            while (running && !atEnd) {
+                while (running && full.get(filling) == 1) {
+                    LockSupport.park(this);
+                }
+                if (!running) break;
+
+                lengths[filling] = fill(chunks[filling]);
+                if (lengths[filling] > 0) {
+                    full.set(filling, 1); // publishes the chunk and its length
+                    filling ^= 1;
+                }
+            }
+            ended = atEnd; // only after the last chunk is published
+        } catch (Exception e) {
+            System.err.println("❌ Error streaming music: " + e.getMessage());
+            ended = true;
+        } finally {
+            closeQuietly();
+        }
+    }
+
+    // Fills the chunk, going back to the start of the file at its end when looping
+    private int fill(byte[] chunk) throws IOException, UnsupportedAudioFileException {
+        int filled = 0;
+        while (filled < chunk.length && running) {
+            int read = in.read(chunk, filled, chunk.length - filled);
+            if (read > 0) {
+                filled += read;
+                bytesSinceOpen += read;
+            } else if (read < 0) {
+                closeQuietly();
+                if (!loop || bytesSinceOpen == 0) { // an empty file would loop forever
+                    atEnd = true;
+                    break;
+                }
+                in = source.open();
+                bytesSinceOpen = 0;
+            }
+        }
+        return filled;
+    }
+
+    private static AudioInputStream converted(AudioInputStream source) throws IOException {
+        if (source.getFormat().matches(SoundBank.FORMAT)) {
+            return source;
+        }
+        if (!AudioSystem.isConversionSupported(SoundBank.FORMAT, source.getFormat())) {
+            source.close();
+            throw new IOException("can't convert " + source.getFormat() + " to " + SoundBank.FORMAT);
+        }
+        return AudioSystem.getAudioInputStream(SoundBank.FORMAT, source);
+    }
+
+    private void closeQuietly() {
+        try {
+            in.close();
+        } catch (IOException ignored) {
+            // Nothing left to do with it
+        }
+    }
+}
@@ -5,7 +5,15 @@ import java.util.*;
 import java.util.List;
 import javax.swing.Timer;
 
-public class NumberMatchingGame extends JFrame {
+/**
+ * Medium mode scene: ten rounds of picking the word that matches a number.
+ */
+public class NumberMatchingGame extends JPanel implements Scene.Preparable<List<NumberMatchingGame.Question>> {
+    public static final int QUESTIONS_PER_ROUND = 10;
+
+    /** A number and the three words offered for it, already shuffled. */
+    record Question(int number, List<String> options) {}
+
     private int currentNumber;
     private final String[] numberWords = {
             "Zero", "One", "Two", "Three", "Four",
@@ -15,36 +23,72 @@ public class NumberMatchingGame extends JFrame {
     private JButton[] wordButtons;
     private JLabel scoreLabel;
     private int score = 0, totalQuestions = 0;
+    private Timer nextQuestionDelay;
+    private final SoundPlayer soundPlayer = SceneManager.getInstance().getSoundPlayer();
+    private List<Question> round;
+    private boolean roundIsFresh; // prepared but not played yet
 
     public NumberMatchingGame() {
-        setTitle("🟡 Number Matching Game - Medium Mode");
-        setSize(800, 600);
-        setLocationRelativeTo(null);
-        setDefaultCloseOperation(EXIT_ON_CLOSE);
-        setLayout(new BorderLayout());
+        super(new BorderLayout());
+        setPreferredSize(new Dimension(800, 600));
         setupUI();
-        generateNewQuestion();
-        setVisible(true);
+    }
+
+    @Override
+    public JComponent getView() {
+        return this;
+    }
+
+    @Override
+    public String getTitle() {
+        return "🟡 Number Matching Game - Medium Mode";
+    }
+
+    @Override
+    public List<Question> prepareRound(GraphicsConfiguration gc) {
+        return buildRound(new Random());
+    }
+
+    @Override
+    public void usePreparedRound(List<Question> questions) {
+        round = questions;
+        roundIsFresh = true;
+    }
+
+    @Override
+    public void onEnter() {
+        if (!roundIsFresh) {
+            round = buildRound(new Random());
+        }
+        roundIsFresh = false;
+        score = 0;
+        totalQuestions = 0;
+        scoreLabel.setText("Score: 0/0");
+        showQuestion();
+    }
+
+    @Override
+    public void onExit() {
+        if (nextQuestionDelay != null) {
+            nextQuestionDelay.stop(); // don't pop the final score over another scene
+        }
     }
 
     private void setupUI() {
         // Top Panel (Back Button + Score)
         JPanel topPanel = new JPanel(new BorderLayout());
-        topPanel.setBackground(new Color(255, 248, 220));
+        topPanel.setBackground(Theme.CREAM);
 
         JButton backButton = new JButton("🏠 Back to Menu");
-        backButton.setFont(new Font("Arial", Font.BOLD, 14));
-        backButton.setBackground(new Color(255, 107, 107));
+        backButton.setFont(Theme.BUTTON_SMALL_FONT);
+        backButton.setBackground(Theme.CORAL);
         backButton.setForeground(Color.WHITE);
         backButton.setFocusPainted(false);
         backButton.setBorder(BorderFactory.createEmptyBorder(8, 15, 8, 15));
-        backButton.addActionListener(e -> {
-            dispose();
-            new GameFrame();
-        });
+        backButton.addActionListener(e -> SceneManager.getInstance().show(SceneManager.SceneId.MENU));
 
         scoreLabel = new JLabel("Score: 0/0", JLabel.CENTER);
-        scoreLabel.setFont(new Font("Arial", Font.BOLD, 18));
+        scoreLabel.setFont(Theme.BUTTON_LARGE_FONT);
 
         topPanel.add(backButton, BorderLayout.WEST);
         topPanel.add(scoreLabel, BorderLayout.CENTER);
@@ -53,16 +97,16 @@ public class NumberMatchingGame extends JFrame {
         // Game Panel (Instructions + Number + Buttons)
         JPanel gamePanel = new JPanel();
         gamePanel.setLayout(new BoxLayout(gamePanel, BoxLayout.Y_AXIS));
-        gamePanel.setBackground(new Color(255, 248, 220));
+        gamePanel.setBackground(Theme.CREAM);
         gamePanel.setBorder(BorderFactory.createEmptyBorder(40, 60, 40, 60));
 
         JLabel instructions = new JLabel("🔢 Match the number to its word!", JLabel.CENTER);
-        instructions.setFont(new Font("Comic Sans MS", Font.BOLD, 24));
+        instructions.setFont(Theme.HEADING_FONT);
         instructions.setAlignmentX(Component.CENTER_ALIGNMENT);
 
         numberLabel = new JLabel("", JLabel.CENTER);
         numberLabel.setFont(new Font("Arial", Font.BOLD, 120));
-        numberLabel.setForeground(new Color(33, 150, 243));
+        numberLabel.setForeground(Theme.BLUE);
         numberLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
 
         JPanel buttonsPanel = new JPanel(new FlowLayout());
@@ -71,7 +115,7 @@ public class NumberMatchingGame extends JFrame {
 
         for (int i = 0; i < 3; i++) {
             wordButtons[i] = new JButton();
-            wordButtons[i].setFont(new Font("Arial", Font.BOLD, 18));
+            wordButtons[i].setFont(Theme.BUTTON_LARGE_FONT);
             wordButtons[i].setPreferredSize(new Dimension(120, 50));
             int index = i;
             wordButtons[i].addActionListener(e -> checkAnswer(index));
@@ -86,23 +130,33 @@ public class NumberMatchingGame extends JFrame {
         add(gamePanel, BorderLayout.CENTER);
     }
 
-    private void generateNewQuestion() {
-        currentNumber = new Random().nextInt(10); // 0 to 9
-        numberLabel.setText(String.valueOf(currentNumber));
+    // Plain data only, so it can be built on a background thread
+    private List<Question> buildRound(Random random) {
+        List<Question> questions = new ArrayList<>(QUESTIONS_PER_ROUND);
+        for (int q = 0; q < QUESTIONS_PER_ROUND; q++) {
+            int number = random.nextInt(10); // 0 to 9
+
+            Set<String> options = new LinkedHashSet<>();
+            options.add(numberWords[number]);
 
-        Set<String> options = new LinkedHashSet<>();
-        options.add(numberWords[currentNumber]);
+            while (options.size() < 3) {
+                options.add(numberWords[random.nextInt(10)]);
+            }
 
-        while (options.size() < 3) {
-            int rand = new Random().nextInt(10);
-            options.add(numberWords[rand]);
+            List<String> shuffled = new ArrayList<>(options);
+            Collections.shuffle(shuffled, random);
+            questions.add(new Question(number, shuffled));
         }
+        return questions;
+    }
 
-        List<String> shuffled = new ArrayList<>(options);
-        Collections.shuffle(shuffled);
+    private void showQuestion() {
+        Question question = round.get(totalQuestions);
+        currentNumber = question.number();
+        numberLabel.setText(String.valueOf(currentNumber));
 
         for (int i = 0; i < 3; i++) {
-            wordButtons[i].setText(shuffled.get(i));
+            wordButtons[i].setText(question.options().get(i));
             wordButtons[i].setEnabled(true);
             wordButtons[i].setBackground(new Color(220, 220, 220));
         }
@@ -115,12 +169,14 @@ public class NumberMatchingGame extends JFrame {
 
         if (isCorrect) {
             score++;
-            wordButtons[index].setBackground(new Color(76, 175, 80)); // Green
+            wordButtons[index].setBackground(Theme.GREEN); // Green
+            soundPlayer.playSynthEffect(Synthesizer.Preset.CHIME);
         } else {
-            wordButtons[index].setBackground(new Color(244, 67, 54)); // Red
+            wordButtons[index].setBackground(Theme.RED); // Red
+            soundPlayer.playSynthEffect(Synthesizer.Preset.BUZZ);
             for (JButton btn : wordButtons) {
                 if (btn.getText().equals(numberWords[currentNumber])) {
-                    btn.setBackground(new Color(76, 175, 80));
+                    btn.setBackground(Theme.GREEN);
                 }
             }
         }
@@ -128,20 +184,20 @@ public class NumberMatchingGame extends JFrame {
         scoreLabel.setText("Score: " + score + "/" + totalQuestions);
         for (JButton btn : wordButtons) btn.setEnabled(false);
 
-        Timer delay = new Timer(1200, e -> {
-            if (totalQuestions >= 10) {
+        nextQuestionDelay = new Timer(1200, e -> {
+            if (totalQuestions >= QUESTIONS_PER_ROUND) {
                 showFinalScore();
             } else {
-                generateNewQuestion();
+                showQuestion();
             }
         });
-        delay.setRepeats(false);
-        delay.start();
+        nextQuestionDelay.setRepeats(false);
+        nextQuestionDelay.start();
     }
 
     private void showFinalScore() {
         String msg = "🎉 Game Complete! 🎉\n\n" +
-                "Final Score: " + score + "/10\n" +
+                "Final Score: " + score + "/" + QUESTIONS_PER_ROUND + "\n" +
                 (score >= 8 ? "⭐ Excellent!" : score >= 6 ? "👍 Good job!" : "💪 Keep practicing!");
 
         String[] options = {"🎮 Play Again", "🏠 Main Menu", "🔴 Try Hard Mode"};
@@ -149,24 +205,11 @@ public class NumberMatchingGame extends JFrame {
                 JOptionPane.YES_NO_CANCEL_OPTION, JOptionPane.INFORMATION_MESSAGE,
                 null, options, options[0]);
 
+        SceneManager manager = SceneManager.getInstance();
         switch (choice) {
-            case 0 -> {
-                dispose();
-                new NumberMatchingGame();
-            }
-            case 1 -> {
-                dispose();
-                new GameFrame();
-            }
-            case 2 -> {
-                dispose();
-                try {
-                    new MathChallengeGame();
-                } catch (Exception e) {
-                    JOptionPane.showMessageDialog(this, "Hard mode coming soon!");
-                    new GameFrame();
-                }
-            }
+            case 0 -> manager.show(SceneManager.SceneId.NUMBER_MATCHING);
+            case 1 -> manager.show(SceneManager.SceneId.MENU);
+            case 2 -> manager.show(SceneManager.SceneId.MATH_CHALLENGE);
         }
     }
 }
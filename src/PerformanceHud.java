@@ -0,0 +1,322 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.KeyEvent;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Toggleable performance overlay (F3) shown over any game window.
+ *
+ * While visible it shows frames per second, paint time per custom component,
+ * EDT queue latency, heap use and GC pauses, each with a rolling histogram,
+ * so a stutter can be traced to painting, garbage collection or a blocked EDT.
+ *
+ * Components report paint time through beginPaint()/endPaint(). While no
+ * overlay is visible those calls only read one volatile flag, and the overlay
+ * itself is unregistered from the AnimationClock and its probe thread is
+ * stopped, so hidden it costs next to nothing. Visible, it works on fixed-size
+ * ring buffers and rebuilds its text a few times a second.
+ */
+public class PerformanceHud extends JComponent {
+
+    /** Components whose paint time is tracked. */
+    public enum Slot {
+        GRADIENT("Gradient"),
+        PARTICLES("Particles"),
+        TITLE("Title"),
+        BUTTONS("Buttons"),
+        BOARD("Board");
+
+        final String label;
+
+        Slot(String label) {
+            this.label = label;
+        }
+    }
+
+    public static final KeyStroke TOGGLE_KEY = KeyStroke.getKeyStroke(KeyEvent.VK_F3, 0, false);
+
+    private static final int HISTORY = 120;
+    private static final int TEXT_REFRESH_FRAMES = 15;
+    private static final long PROBE_INTERVAL_MS = 50;
+
+    private static final Font HUD_FONT = new Font(Font.MONOSPACED, Font.PLAIN, 11);
+    private static final Color HUD_BACKGROUND = new Color(0, 0, 0, 170);
+    private static final Color HUD_TEXT = new Color(230, 255, 230);
+    private static final Color BAR_OK = new Color(120, 220, 120);
+    private static final Color BAR_SLOW = new Color(255, 110, 90);
+    private static final int PANEL_WIDTH = 300;
+    private static final int ROW_HEIGHT = 22;
+    private static final int MARGIN = 8;
+
+    // Set while any overlay is visible; instrumentation checks it first
+    private static volatile boolean recording = false;
+
+    // Paint timings come from the EDT, so plain arrays are enough
+    private static final long[] paintNanos = new long[Slot.values().length];
+
+    /** Call at the start of paintComponent. Returns 0 when nothing is recording. */
+    public static long beginPaint() {
+        return recording ? System.nanoTime() : 0L;
+    }
+
+    /** Call at the end of paintComponent with the value beginPaint() returned. */
+    public static void endPaint(Slot slot, long start) {
+        if (start == 0L) return;
+        paintNanos[slot.ordinal()] += System.nanoTime() - start;
+    }
+
+    /** Installs the overlay as the frame's glass pane and binds F3 to toggle it. */
+    public static PerformanceHud install(RootPaneContainer frame) {
+        JRootPane rootPane = frame.getRootPane();
+        PerformanceHud hud = new PerformanceHud();
+        frame.setGlassPane(hud);
+        rootPane.getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW).put(TOGGLE_KEY, "TOGGLE_PERFORMANCE_HUD");
+        rootPane.getActionMap().put("TOGGLE_PERFORMANCE_HUD", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                hud.toggle();
+            }
+        });
+        return hud;
+    }
+
+    private static final class History {
+        final float[] samples = new float[HISTORY];
+        final float warnAt;
+        int next = 0;
+        int filled = 0;
+        float last;
+
+        History(float warnAt) {
+            this.warnAt = warnAt;
+        }
+
+        void add(float value) {
+            last = value;
+            samples[next] = value;
+            next = (next + 1) % HISTORY;
+            if (filled < HISTORY) filled++;
+        }
+
+        float max() {
+            float max = 0;
+            for (int i = 0; i < filled; i++) {
+                max = Math.max(max, samples[i]);
+            }
+            return max;
+        }
+
+        void clear() {
+            next = 0;
+            filled = 0;
+            last = 0;
+        }
+    }
+
+    private final AnimationClock.Animation sampler = this::sample;
+    private final History frameMillis = new History(1000f / 30);
+    private final History[] paintMillis = new History[Slot.values().length];
+    private final History edtLatencyMillis = new History(16);
+    private final History heapMegabytes = new History(Float.MAX_VALUE);
+    private final History gcPauseMillis = new History(16);
+    private final String[] rowText = new String[5 + Slot.values().length];
+    private final List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+
+    private long lastFrameNanos;
+    private long lastGcMillis;
+    private int framesSinceText;
+    private Thread probe;
+    private boolean running; // sampling; stops while the overlay isn't displayable
+
+    // Written by the probe thread, read on the EDT
+    private volatile float latestEdtLatencyMillis;
+
+    private PerformanceHud() {
+        setOpaque(false);
+        super.setVisible(false);
+        for (int i = 0; i < paintMillis.length; i++) {
+            paintMillis[i] = new History(8);
+        }
+    }
+
+    public void toggle() {
+        setVisible(!isVisible());
+    }
+
+    @Override
+    public void setVisible(boolean visible) {
+        boolean wasVisible = isVisible();
+        super.setVisible(visible);
+        if (visible == wasVisible) return;
+
+        if (visible) {
+            start();
+        } else {
+            stop();
+        }
+    }
+
+    // Going full screen rebuilds the window: pick up again where removeNotify left off
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        if (isVisible()) start();
+    }
+
+    @Override
+    public void removeNotify() {
+        stop();
+        super.removeNotify();
+    }
+
+    private void start() {
+        if (running) return;
+        running = true;
+        frameMillis.clear();
+        edtLatencyMillis.clear();
+        heapMegabytes.clear();
+        gcPauseMillis.clear();
+        for (History h : paintMillis) h.clear();
+        Arrays.fill(paintNanos, 0L);
+
+        lastFrameNanos = 0;
+        lastGcMillis = totalGcMillis();
+        framesSinceText = TEXT_REFRESH_FRAMES;
+        recording = true;
+        AnimationClock.getInstance().add(sampler);
+        startProbe();
+    }
+
+    private void stop() {
+        running = false;
+        recording = false;
+        AnimationClock.getInstance().remove(sampler);
+        if (probe != null) {
+            probe.interrupt();
+            probe = null;
+        }
+    }
+
+    // Measures how long a posted event waits before the EDT gets to it
+    private void startProbe() {
+        Thread thread = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                long posted = System.nanoTime();
+                try {
+                    SwingUtilities.invokeAndWait(() ->
+                            latestEdtLatencyMillis = (System.nanoTime() - posted) / 1_000_000f);
+                    Thread.sleep(PROBE_INTERVAL_MS);
+                } catch (InterruptedException | InvocationTargetException e) {
+                    return;
+                }
+            }
+        }, "perf-hud-edt-probe");
+        thread.setDaemon(true);
+        probe = thread;
+        thread.start();
+    }
+
+    private long totalGcMillis() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : collectors) {
+            long time = gc.getCollectionTime();
+            if (time > 0) total += time;
+        }
+        return total;
+    }
+
+    private boolean sample(float dt) {
+        long now = System.nanoTime();
+        if (lastFrameNanos != 0) {
+            frameMillis.add((now - lastFrameNanos) / 1_000_000f);
+        }
+        lastFrameNanos = now;
+
+        for (int i = 0; i < paintMillis.length; i++) {
+            paintMillis[i].add(paintNanos[i] / 1_000_000f);
+            paintNanos[i] = 0;
+        }
+
+        edtLatencyMillis.add(latestEdtLatencyMillis);
+
+        Runtime runtime = Runtime.getRuntime();
+        heapMegabytes.add((runtime.totalMemory() - runtime.freeMemory()) / (1024f * 1024f));
+
+        long gcMillis = totalGcMillis();
+        gcPauseMillis.add(gcMillis - lastGcMillis);
+        lastGcMillis = gcMillis;
+
+        if (++framesSinceText >= TEXT_REFRESH_FRAMES) {
+            framesSinceText = 0;
+            refreshText();
+        }
+
+        // Only the overlay box, not the whole window underneath the glass pane
+        repaint(getWidth() - PANEL_WIDTH - MARGIN, MARGIN, PANEL_WIDTH, panelHeight());
+        return true;
+    }
+
+    private int panelHeight() {
+        return MARGIN * 2 + rowText.length * ROW_HEIGHT;
+    }
+
+    private void refreshText() {
+        float fps = frameMillis.last > 0 ? 1000f / frameMillis.last : 0;
+        rowText[0] = String.format("FPS %5.1f  frame %5.1f ms (max %5.1f)", fps, frameMillis.last, frameMillis.max());
+        rowText[1] = String.format("EDT latency %5.1f ms (max %5.1f)", edtLatencyMillis.last, edtLatencyMillis.max());
+        rowText[2] = String.format("Heap %6.1f MB", heapMegabytes.last);
+        rowText[3] = String.format("GC pause %4.0f ms (max %4.0f)", gcPauseMillis.last, gcPauseMillis.max());
+        rowText[4] = "Paint per frame:";
+        for (Slot slot : Slot.values()) {
+            History h = paintMillis[slot.ordinal()];
+            rowText[5 + slot.ordinal()] = String.format("  %-10s %5.2f ms (max %5.2f)", slot.label, h.last, h.max());
+        }
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        if (rowText[0] == null) return;
+
+        Graphics2D g2 = (Graphics2D) g;
+        int height = panelHeight();
+        int x = getWidth() - PANEL_WIDTH - MARGIN;
+        int y = MARGIN;
+
+        g2.setColor(HUD_BACKGROUND);
+        g2.fillRect(x, y, PANEL_WIDTH, height);
+        g2.setFont(HUD_FONT);
+
+        int row = 0;
+        drawRow(g2, x, y, row++, frameMillis);
+        drawRow(g2, x, y, row++, edtLatencyMillis);
+        drawRow(g2, x, y, row++, heapMegabytes);
+        drawRow(g2, x, y, row++, gcPauseMillis);
+        drawRow(g2, x, y, row++, null);
+        for (History h : paintMillis) {
+            drawRow(g2, x, y, row++, h);
+        }
+    }
+
+    private void drawRow(Graphics2D g2, int x, int y, int row, History history) {
+        int top = y + MARGIN + row * ROW_HEIGHT;
+        g2.setColor(HUD_TEXT);
+        g2.drawString(rowText[row], x + MARGIN, top + 10);
+        if (history == null || history.filled == 0) return;
+
+        // Rolling histogram under the text, scaled to the worst sample on screen
+        float max = Math.max(history.max(), 0.001f);
+        int barBottom = top + ROW_HEIGHT - 2;
+        int barSpace = 8;
+        for (int i = 0; i < history.filled; i++) {
+            float value = history.samples[(history.next - history.filled + i + HISTORY) % HISTORY];
+            int barHeight = Math.max(1, Math.round(value / max * barSpace));
+            g2.setColor(value > history.warnAt ? BAR_SLOW : BAR_OK);
+            g2.fillRect(x + MARGIN + i * 2, barBottom - barHeight, 2, barHeight);
+        }
+    }
+}
@@ -2,12 +2,43 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.Objects;
 
+/**
+ * Pill-shaped button. The rounded background and the label for each visual
+ * state are rendered once into a cached image with one pixel per device
+ * pixel, so a repaint is a single blit and allocates nothing. The images are
+ * rebuilt when the size, screen, text, font, color, icon or enabled state
+ * changes. Being selected doesn't change the fill; the menu marks the
+ * selected level with a border.
+ */
 public class RoundedButton extends JButton {
+    private enum State { NORMAL, HOVER, PRESSED }
+
+    private static final int ARC = 25;
+    private static final Color HOVER_SHADOW = new Color(0, 0, 0, 30);
+    private static final Color PRESSED_SHADOW = new Color(0, 0, 0, 60);
+
     private Color backgroundColor;
     private Color hoverColor;
     private boolean isHovered = false;
 
+    // One lazily rendered look per State, valid for what was drawn below
+    private final Image[] stateImages = new Image[State.values().length];
+    private int imagesWidth = -1;
+    private int imagesHeight = -1;
+    private GraphicsConfiguration imagesConfig;
+    private double imagesScaleX = 1;
+    private double imagesScaleY = 1;
+    private String imagesText;
+    private Font imagesFont;
+    private Color imagesForeground;
+    private Icon imagesIcon;
+    private boolean imagesEnabled;
+    private final AffineTransform blit = new AffineTransform(); // back from device to component pixels
+
     public RoundedButton(String text, Color bgColor, Color hoverColor) {
         super(text);
         this.backgroundColor = bgColor;
@@ -32,22 +63,97 @@ public class RoundedButton extends JButton {
         });
     }
 
+    private State currentState() {
+        ButtonModel model = getModel();
+        if (model.isArmed() && model.isPressed()) return State.PRESSED;
+        if (isHovered) return State.HOVER;
+        return State.NORMAL;
+    }
+
     @Override
     protected void paintComponent(Graphics g) {
-        Graphics2D g2 = (Graphics2D) g.create();
+        long hudStart = PerformanceHud.beginPaint();
+        int width = getWidth();
+        int height = getHeight();
+        if (width > 0 && height > 0) {
+            GraphicsConfiguration gc = getGraphicsConfiguration();
+            if (!isStateCacheValid(width, height, gc)) {
+                flushStateImages();
+                if (gc != imagesConfig) {
+                    AffineTransform screen = gc != null ? gc.getDefaultTransform() : null;
+                    imagesScaleX = screen != null ? screen.getScaleX() : 1;
+                    imagesScaleY = screen != null ? screen.getScaleY() : 1;
+                    blit.setToScale(1 / imagesScaleX, 1 / imagesScaleY);
+                }
+                imagesWidth = width;
+                imagesHeight = height;
+                imagesConfig = gc;
+                imagesText = getText();
+                imagesFont = getFont();
+                imagesForeground = getForeground();
+                imagesIcon = getIcon();
+                imagesEnabled = isEnabled();
+            }
+
+            State state = currentState();
+            Image look = stateImages[state.ordinal()];
+            if (look == null) {
+                look = renderState(state, gc, width, height, g);
+                stateImages[state.ordinal()] = look;
+            }
+            ((Graphics2D) g).drawImage(look, blit, null);
+        }
+        PerformanceHud.endPaint(PerformanceHud.Slot.BUTTONS, hudStart);
+    }
+
+    private boolean isStateCacheValid(int width, int height, GraphicsConfiguration gc) {
+        return width == imagesWidth
+                && height == imagesHeight
+                && gc == imagesConfig
+                && isEnabled() == imagesEnabled
+                && Objects.equals(getText(), imagesText)
+                && Objects.equals(getFont(), imagesFont)
+                && Objects.equals(getForeground(), imagesForeground)
+                && getIcon() == imagesIcon;
+    }
+
+    // Renders with the model in this state, which is when it is first shown
+    private Image renderState(State state, GraphicsConfiguration gc, int width, int height, Graphics target) {
+        int deviceWidth = (int) Math.ceil(width * imagesScaleX);
+        int deviceHeight = (int) Math.ceil(height * imagesScaleY);
+        BufferedImage image = gc != null
+                ? gc.createCompatibleImage(deviceWidth, deviceHeight, Transparency.TRANSLUCENT)
+                : new BufferedImage(deviceWidth, deviceHeight, BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D g2 = image.createGraphics();
+        g2.scale(imagesScaleX, imagesScaleY);
         g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
 
-        Color currentColor = isHovered ? hoverColor : backgroundColor;
+        Color currentColor = state == State.NORMAL ? backgroundColor : hoverColor;
         g2.setColor(currentColor);
-        g2.fillRoundRect(0, 0, getWidth(), getHeight(), 25, 25);
+        g2.fillRoundRect(0, 0, width, height, ARC, ARC);
 
-        // Add subtle shadow when hovered
-        if (isHovered) {
-            g2.setColor(new Color(0, 0, 0, 30));
-            g2.fillRoundRect(2, 2, getWidth(), getHeight(), 25, 25);
+        // Add subtle shadow when hovered, a stronger one while pressed
+        if (state == State.HOVER || state == State.PRESSED) {
+            g2.setColor(state == State.PRESSED ? PRESSED_SHADOW : HOVER_SHADOW);
+            g2.fillRoundRect(2, 2, width, height, ARC, ARC);
         }
 
+        // The label, with the text hints and font JComponent.paint would have set up
+        g2.setRenderingHints(((Graphics2D) target).getRenderingHints());
+        g2.setFont(getFont());
+        g2.setColor(getForeground());
+        super.paintComponent(g2);
+
         g2.dispose();
-        super.paintComponent(g);
+        return image;
+    }
+
+    private void flushStateImages() {
+        for (int i = 0; i < stateImages.length; i++) {
+            if (stateImages[i] != null) {
+                stateImages[i].flush();
+                stateImages[i] = null;
+            }
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,42 @@
+import javax.swing.*;
+import java.awt.*;
+
+/**
+ * One screen of the app (the menu or a game), shown by the SceneManager.
+ *
+ * A scene is built once and may be shown many times. onEnter runs every time
+ * it becomes the current scene, so that's where a game starts a fresh round
+ * and the menu starts its music; onExit runs when another scene replaces it
+ * and should stop anything that would otherwise keep running in the
+ * background. onDispose runs once when the manager drops the scene for good.
+ */
+public interface Scene {
+
+    /** The component that fills the window while this scene is current. */
+    JComponent getView();
+
+    /** Window title while this scene is current. */
+    String getTitle();
+
+    default void onEnter() {
+    }
+
+    default void onExit() {
+    }
+
+    default void onDispose() {
+    }
+
+    /**
+     * A scene whose next round can be built ahead of time. The SceneManager
+     * calls prepareRound on a background thread, so it may only build plain
+     * data (and images, using the given screen configuration) and must not
+     * touch components. The result is handed to usePreparedRound on the EDT,
+     * and the next onEnter plays that round instead of building one.
+     */
+    interface Preparable<R> extends Scene {
+        R prepareRound(GraphicsConfiguration gc);
+
+        void usePreparedRound(R round);
+    }
+}
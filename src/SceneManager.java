@@ -0,0 +1,280 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.KeyEvent;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Owns the app's only window and switches scenes inside it.
+ *
+ * Scenes are built the first time they are shown and kept warm afterwards,
+ * so going back to the menu or replaying a game only swaps the window's
+ * content and calls the lifecycle hooks instead of rebuilding a JFrame and
+ * its whole component tree. The WARM_SCENES most recently used scenes are
+ * kept; older ones are disposed. The window also owns the things every scene
+ * shares: the SoundPlayer, the performance overlay and full screen handling.
+ *
+ * prewarm() builds a scene's next round in the background while the player
+ * is still on the menu, so showing it afterwards does no construction work.
+ * Only one prewarm runs at a time; asking for another scene cancels it.
+ * All methods must be called on the EDT.
+ */
+public final class SceneManager {
+
+    /** Every scene the app can show. */
+    public enum SceneId {
+        MENU, SHAPE_MATCHING, NUMBER_MATCHING, MATH_CHALLENGE
+    }
+
+    public static final int WARM_SCENES = 3;
+
+    private static SceneManager instance;
+
+    private final JFrame window = new JFrame();
+    private final SoundPlayer soundPlayer = new SoundPlayer();
+    // Access order, so the first entry is always the least recently shown
+    private final LinkedHashMap<SceneId, Scene> warm = new LinkedHashMap<>(8, 0.75f, true);
+    private SceneId currentId;
+    private Scene current;
+    private SceneId prewarmId;
+    private SwingWorker<?, ?> prewarmWorker;
+
+    private SceneManager() {
+        window.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        window.setMinimumSize(new Dimension(600, 400));
+        window.setResizable(true);
+
+        // ESC leaves full screen, F3 toggles the performance overlay
+        KeyStroke escapeKeyStroke = KeyStroke.getKeyStroke(KeyEvent.VK_ESCAPE, 0, false);
+        window.getRootPane().getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW).put(escapeKeyStroke, "ESCAPE");
+        window.getRootPane().getActionMap().put("ESCAPE", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                exitFullScreen();
+            }
+        });
+        PerformanceHud.install(window);
+    }
+
+    public static SceneManager getInstance() {
+        if (instance == null) {
+            instance = new SceneManager();
+        }
+        return instance;
+    }
+
+    public JFrame getWindow() {
+        return window;
+    }
+
+    public SoundPlayer getSoundPlayer() {
+        return soundPlayer;
+    }
+
+    public SceneId getCurrentId() {
+        return currentId;
+    }
+
+    /**
+     * Makes the scene current, building it first if it isn't warm. Showing the
+     * current scene again restarts it (onExit, then onEnter).
+     */
+    public void show(SceneId id) {
+        long start = System.nanoTime();
+        cancelPrewarm(); // a round it finished later would land in a scene that is already playing
+
+        if (current != null) {
+            current.onExit();
+        }
+
+        Scene scene = warm.get(id);
+        if (scene == null) {
+            scene = create(id);
+            warm.put(id, scene);
+            evictColdScenes();
+        }
+
+        boolean switching = scene != current;
+        Container content = window.getContentPane();
+        if (switching) {
+            content.removeAll();
+            content.add(scene.getView(), BorderLayout.CENTER);
+        }
+        current = scene;
+        currentId = id;
+        // Before sizing the window: a game may only know its board size once the round is set up
+        scene.onEnter();
+        if (switching) {
+            window.setTitle(scene.getTitle());
+            fitWindowTo(scene.getView());
+            content.revalidate();
+            content.repaint();
+        }
+
+        if (!window.isVisible()) {
+            window.setLocationRelativeTo(null);
+            window.setVisible(true);
+        }
+        System.out.printf("🎬 %s ready in %.1f ms%n", id, (System.nanoTime() - start) / 1_000_000.0);
+    }
+
+    /**
+     * Starts building the scene's next round in the background, building the
+     * scene itself first if it isn't warm. Cancels a prewarm of another scene;
+     * does nothing for the current scene or one that can't prepare rounds.
+     */
+    public void prewarm(SceneId id) {
+        if (id == prewarmId && prewarmWorker != null) return; // already on it
+        cancelPrewarm();
+        if (id == currentId) return;
+
+        Scene scene = warm.get(id);
+        if (scene == null) {
+            scene = create(id);
+            warm.put(id, scene);
+            evictColdScenes();
+        }
+        if (scene instanceof Scene.Preparable<?> preparable) {
+            startPrewarm(id, preparable);
+        }
+    }
+
+    private <R> void startPrewarm(SceneId id, Scene.Preparable<R> scene) {
+        GraphicsConfiguration gc = window.getGraphicsConfiguration();
+        long start = System.nanoTime();
+        SwingWorker<R, Void> worker = new SwingWorker<>() {
+            @Override
+            protected R doInBackground() {
+                return scene.prepareRound(gc);
+            }
+
+            @Override
+            protected void done() {
+                if (prewarmWorker != this) return; // cancelled, or replaced by a newer prewarm
+                prewarmWorker = null;
+                prewarmId = null;
+                if (isCancelled() || warm.get(id) != scene) return;
+
+                try {
+                    scene.usePreparedRound(get());
+                    System.out.printf("🔥 %s prewarmed in %.1f ms%n", id, (System.nanoTime() - start) / 1_000_000.0);
+                } catch (Exception e) {
+                    // Not fatal: the scene builds its round itself when shown
+                    System.err.println("❌ Couldn't prewarm " + id + ": " + e.getMessage());
+                }
+            }
+        };
+        prewarmId = id;
+        prewarmWorker = worker;
+        worker.execute();
+    }
+
+    // A prepareRound already running isn't stopped by this; it finishes in the background
+    // and done() drops its result, which is fine since it only builds data of its own
+    private void cancelPrewarm() {
+        if (prewarmWorker != null) {
+            prewarmWorker.cancel(true);
+            prewarmWorker = null;
+            prewarmId = null;
+        }
+    }
+
+    private static Scene create(SceneId id) {
+        return switch (id) {
+            case MENU -> new GameFrame();
+            case SHAPE_MATCHING -> new ShapeMatchingGame();
+            case NUMBER_MATCHING -> new NumberMatchingGame();
+            case MATH_CHALLENGE -> new MathChallengeGame();
+        };
+    }
+
+    private void evictColdScenes() {
+        Iterator<Map.Entry<SceneId, Scene>> it = warm.entrySet().iterator();
+        while (warm.size() > WARM_SCENES && it.hasNext()) {
+            Map.Entry<SceneId, Scene> oldest = it.next();
+            if (oldest.getValue() == current) continue;
+            it.remove();
+            oldest.getValue().onDispose();
+        }
+    }
+
+    // Resizes around the window's current center, unless it is maximized or full screen
+    private void fitWindowTo(JComponent view) {
+        if (!window.isVisible()) {
+            window.getContentPane().setPreferredSize(view.getPreferredSize());
+            window.pack();
+            window.getContentPane().setPreferredSize(null);
+            return;
+        }
+        if (isFullScreen() || (window.getExtendedState() & Frame.MAXIMIZED_BOTH) != 0) return;
+
+        Insets insets = window.getInsets();
+        Dimension preferred = view.getPreferredSize();
+        int width = Math.max(window.getMinimumSize().width, preferred.width + insets.left + insets.right);
+        int height = Math.max(window.getMinimumSize().height, preferred.height + insets.top + insets.bottom);
+        Rectangle bounds = window.getBounds();
+        window.setBounds(bounds.x + (bounds.width - width) / 2, bounds.y + (bounds.height - height) / 2,
+                width, height);
+    }
+
+    public boolean isFullScreen() {
+        GraphicsDevice gd = window.getGraphicsConfiguration().getDevice();
+        return gd.getFullScreenWindow() == window;
+    }
+
+    public void toggleFullScreen() {
+        GraphicsDevice gd = window.getGraphicsConfiguration().getDevice();
+
+        if (!gd.isFullScreenSupported()) {
+            JOptionPane.showMessageDialog(window,
+                    "❌ Full screen mode is not supported on this system",
+                    "Display Settings",
+                    JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        if (isFullScreen()) {
+            exitFullScreen();
+            return;
+        }
+
+        try {
+            window.dispose();
+            window.setUndecorated(true);
+            gd.setFullScreenWindow(window);
+            window.setVisible(true);
+            JOptionPane.showMessageDialog(window,
+                    "✅ Full Screen Mode ON\nPress ESC to exit full screen",
+                    "Display Settings",
+                    JOptionPane.INFORMATION_MESSAGE);
+        } catch (Exception e) {
+            JOptionPane.showMessageDialog(window,
+                    "❌ Could not enter full screen mode: " + e.getMessage(),
+                    "Display Error",
+                    JOptionPane.ERROR_MESSAGE);
+            // Restore window if full screen failed
+            gd.setFullScreenWindow(null);
+            window.dispose();
+            window.setUndecorated(false);
+            window.setVisible(true);
+        }
+    }
+
+    public void exitFullScreen() {
+        if (!isFullScreen()) return;
+
+        window.getGraphicsConfiguration().getDevice().setFullScreenWindow(null);
+        window.dispose();
+        window.setUndecorated(false);
+        if (current != null) {
+            fitWindowTo(current.getView());
+        }
+        window.setLocationRelativeTo(null);
+        window.setVisible(true);
+        JOptionPane.showMessageDialog(window,
+                "✅ Full Screen Mode OFF",
+                "Display Settings",
+                JOptionPane.INFORMATION_MESSAGE);
+    }
+}
@@ -0,0 +1,134 @@
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Path2D;
+
+/**
+ * Shared outlines for every ShapeMatchingGame.ShapeType.
+ *
+ * Each type is built once as a path inside the unit square (0,0)-(1,1) and is
+ * never modified afterwards. Callers place it on screen with an AffineTransform,
+ * either once up front with place() for things that don't move, or through
+ * fill() when rasterizing into a cached image.
+ *
+ * For hit testing each outline is also sampled once into a bit mask, so
+ * contains() answers "is this pixel inside the star" with a couple of integer
+ * operations instead of walking the path.
+ */
+public final class ShapeGeometry {
+    private static final Path2D[] UNIT_SHAPES = new Path2D[ShapeMatchingGame.ShapeType.values().length];
+
+    // Masks are MASK_SIZE x MASK_SIZE bits, one row per two longs
+    private static final int MASK_SIZE = 128;
+    private static final int WORDS_PER_ROW = MASK_SIZE / 64;
+    private static final long[][] MASKS = new long[UNIT_SHAPES.length][];
+
+    static {
+        for (ShapeMatchingGame.ShapeType type : ShapeMatchingGame.ShapeType.values()) {
+            UNIT_SHAPES[type.ordinal()] = buildUnitShape(type);
+            MASKS[type.ordinal()] = buildMask(UNIT_SHAPES[type.ordinal()]);
+        }
+    }
+
+    private ShapeGeometry() {
+    }
+
+    private static Path2D buildUnitShape(ShapeMatchingGame.ShapeType type) {
+        Path2D.Double path = new Path2D.Double();
+        switch (type) {
+            case CIRCLE:
+                path.append(new Ellipse2D.Double(0, 0, 1, 1), false);
+                break;
+            case SQUARE:
+                path.moveTo(0, 0);
+                path.lineTo(1, 0);
+                path.lineTo(1, 1);
+                path.lineTo(0, 1);
+                path.closePath();
+                break;
+            case TRIANGLE:
+                path.moveTo(0.5, 0);
+                path.lineTo(0, 1);
+                path.lineTo(1, 1);
+                path.closePath();
+                break;
+            case STAR:
+                // Five points, inner radius half the outer one, first point straight up
+                for (int i = 0; i < 10; i++) {
+                    double angle = Math.PI * i / 5 - Math.PI / 2;
+                    double r = (i % 2 == 0) ? 0.5 : 0.25;
+                    double px = 0.5 + r * Math.cos(angle);
+                    double py = 0.5 + r * Math.sin(angle);
+                    if (i == 0) {
+                        path.moveTo(px, py);
+                    } else {
+                        path.lineTo(px, py);
+                    }
+                }
+                path.closePath();
+                break;
+            case HEART:
+                path.moveTo(0.5, 0.25);
+                path.curveTo(0.5, 0, 0, 0, 0, 0.25);
+                path.curveTo(0, 0.5, 0.5, 0.75, 0.5, 1);
+                path.curveTo(0.5, 0.75, 1, 0.5, 1, 0.25);
+                path.curveTo(1, 0, 0.5, 0, 0.5, 0.25);
+                path.closePath();
+                break;
+            case DIAMOND:
+                path.moveTo(0.5, 0);
+                path.lineTo(0, 0.5);
+                path.lineTo(0.5, 1);
+                path.lineTo(1, 0.5);
+                path.closePath();
+                break;
+        }
+        return path;
+    }
+
+    // Samples the outline at the center of every mask cell
+    private static long[] buildMask(Shape unitShape) {
+        long[] mask = new long[MASK_SIZE * WORDS_PER_ROW];
+        for (int row = 0; row < MASK_SIZE; row++) {
+            double py = (row + 0.5) / MASK_SIZE;
+            for (int col = 0; col < MASK_SIZE; col++) {
+                if (unitShape.contains((col + 0.5) / MASK_SIZE, py)) {
+                    mask[row * WORDS_PER_ROW + (col >> 6)] |= 1L << (col & 63);
+                }
+            }
+        }
+        return mask;
+    }
+
+    /** The shape inside the unit square. Shared, so callers must not cast and modify it. */
+    public static Shape unit(ShapeMatchingGame.ShapeType type) {
+        return UNIT_SHAPES[type.ordinal()];
+    }
+
+    /** A new copy of the shape covering the square at (x, y) with the given size. */
+    public static Shape place(ShapeMatchingGame.ShapeType type, double x, double y, double size) {
+        AffineTransform placement = new AffineTransform(size, 0, 0, size, x, y);
+        return placement.createTransformedShape(UNIT_SHAPES[type.ordinal()]);
+    }
+
+    /** Fills the shape covering the square at (x, y) with the given size. */
+    public static void fill(Graphics2D g2d, ShapeMatchingGame.ShapeType type, double x, double y, double size) {
+        AffineTransform saved = g2d.getTransform();
+        g2d.translate(x, y);
+        g2d.scale(size, size);
+        g2d.fill(UNIT_SHAPES[type.ordinal()]);
+        g2d.setTransform(saved);
+    }
+
+    /** Whether the point falls inside the shape covering the square at (x, y) with the given size. */
+    public static boolean contains(ShapeMatchingGame.ShapeType type, int x, int y, int size, int px, int py) {
+        int dx = px - x;
+        int dy = py - y;
+        if (dx < 0 || dy < 0 || dx >= size || dy >= size) return false;
+
+        int col = dx * MASK_SIZE / size;
+        int row = dy * MASK_SIZE / size;
+        long word = MASKS[type.ordinal()][row * WORDS_PER_ROW + (col >> 6)];
+        return (word & (1L << (col & 63))) != 0;
+    }
+}
@@ -2,137 +2,291 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.awt.geom.*;
-import java.util.ArrayList;
-import java.util.Collections;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.Random;
 
-public class ShapeMatchingGame extends JFrame {
-    private DraggableShape draggedShape = null;
-    private SoundPlayer soundPlayer;
-    private boolean gameCompleted = false;
+/**
+ * Easy mode scene: drag each shape onto the target with the same shape and color.
+ */
+public class ShapeMatchingGame extends JPanel implements Scene.Preparable<ShapeMatchingGame.Round> {
 
+    /** A shuffled board plus the sprites it needs, built off the EDT. */
+    record Round(BoardGenerator.Board board, ShapeSpriteCache.Batch sprites) {}
+
+    private final int pieces;
+    private GamePanel gamePanel;
+    private boolean boardIsFresh; // built but not played yet
+
+    // Teachers can ask for a bigger sorting board, e.g. -Demy.board.pieces=50
     public ShapeMatchingGame() {
-        soundPlayer = new SoundPlayer();
-        setupWindow();
-        add(new GamePanel());
-        setVisible(true);
+        this(piecesFromProperty());
+    }
+
+    public ShapeMatchingGame(int pieces) {
+        super(new BorderLayout());
+        this.pieces = pieces;
+        setupTopPanel();
+    }
+
+    @Override
+    public JComponent getView() {
+        return this;
+    }
+
+    @Override
+    public String getTitle() {
+        return "🟢 Shape Matching Game - Easy Mode";
+    }
+
+    @Override
+    public Round prepareRound(GraphicsConfiguration gc) {
+        BoardGenerator.Board board = createBoard(pieces);
+        return new Round(board, ShapeSpriteCache.prerender(gc, board.shapes()));
     }
 
-    private void setupWindow() {
-        setTitle("🟢 Shape Matching Game - Easy Mode");
-        setSize(900, 700);
-        setLocationRelativeTo(null);
-        setDefaultCloseOperation(EXIT_ON_CLOSE);
-        setResizable(false);
+    @Override
+    public void usePreparedRound(Round round) {
+        ShapeSpriteCache.adopt(round.sprites());
+        setBoard(new GamePanel(round.board()));
+    }
+
+    // Every visit is a new round, unless one was prepared and not played yet
+    @Override
+    public void onEnter() {
+        if (!boardIsFresh) {
+            setBoard(new GamePanel(createBoard(pieces)));
+        }
+        boardIsFresh = false;
+    }
 
+    private void setBoard(GamePanel board) {
+        if (gamePanel != null) {
+            remove(gamePanel);
+        }
+        gamePanel = board;
+        boardIsFresh = true;
+        add(board, BorderLayout.CENTER);
+        revalidate();
+        repaint();
+    }
+
+    // A bad value falls back to the classic board; more pieces than fit on the screen are cut down
+    private static int piecesFromProperty() {
+        String value = System.getProperty("emy.board.pieces");
+        if (value == null) return BoardGenerator.CLASSIC_PIECES;
+
+        int pieces;
+        try {
+            pieces = Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            pieces = 0;
+        }
+        if (pieces < 1) {
+            System.err.println("⚠️ emy.board.pieces must be a number from 1 up, got \"" + value
+                    + "\"; using the classic " + BoardGenerator.CLASSIC_PIECES + " pieces");
+            return BoardGenerator.CLASSIC_PIECES;
+        }
+
+        Dimension size = boardSize(pieces);
+        int max = BoardGenerator.maxPieces(size.width, size.height);
+        if (pieces > max) {
+            System.err.println("⚠️ emy.board.pieces=" + pieces + " doesn't fit on this screen; using " + max);
+            return max;
+        }
+        return pieces;
+    }
+
+    private static BoardGenerator.Board createBoard(int pieces) {
+        Dimension size = boardSize(pieces);
+        return BoardGenerator.generate(pieces, size.width, size.height, new Random());
+    }
+
+    // The classic board keeps its size; bigger ones fill the screen
+    private static Dimension boardSize(int pieces) {
+        if (pieces <= BoardGenerator.CLASSIC_PIECES) {
+            return new Dimension(BoardGenerator.CLASSIC_WIDTH, BoardGenerator.CLASSIC_HEIGHT);
+        }
+        Rectangle screen = GraphicsEnvironment.getLocalGraphicsEnvironment().getMaximumWindowBounds();
+        int width = Math.max(BoardGenerator.CLASSIC_WIDTH, screen.width - 20);
+        int height = Math.max(BoardGenerator.CLASSIC_HEIGHT, screen.height - 110); // title bar and menu button
+        return new Dimension(width, height);
+    }
+
+    private void setupTopPanel() {
         // Add return to menu button
         JPanel topPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
-        topPanel.setBackground(new Color(255, 248, 220));
+        topPanel.setBackground(Theme.CREAM);
 
         JButton backButton = new JButton("🏠 Back to Menu");
-        backButton.setFont(new Font("Arial", Font.BOLD, 14));
-        backButton.setBackground(new Color(255, 107, 107));
+        backButton.setFont(Theme.BUTTON_SMALL_FONT);
+        backButton.setBackground(Theme.CORAL);
         backButton.setForeground(Color.WHITE);
         backButton.setFocusPainted(false);
         backButton.setBorder(BorderFactory.createEmptyBorder(8, 15, 8, 15));
-        backButton.addActionListener(e -> {
-            dispose();
-            new GameFrame();
-        });
+        backButton.addActionListener(e -> SceneManager.getInstance().show(SceneManager.SceneId.MENU));
 
         topPanel.add(backButton);
         add(topPanel, BorderLayout.NORTH);
     }
 
-    class GamePanel extends JPanel {
+    // Static so the board can be built and painted without a window (e.g. offscreen benchmarks)
+    static class GamePanel extends JPanel {
+        private int dragged = -1; // index of the shape being dragged, or -1
+        private boolean gameCompleted = false;
         private DraggableShape[] shapes;
         private TargetZone[] targets;
         private int correctMatches = 0;
-        private final int TOTAL_SHAPES = 6;
+        private String progressText;
+        private Timer victoryDelay;
+        private static final float RETURN_SECONDS = 0.5f;
+
+        // Shapes that can be picked up and free targets, indexed by position so a
+        // click only tests the few pieces near it instead of the whole board
+        private SpatialGrid shapeIndex;
+        private SpatialGrid targetIndex;
+        private int[] hits;
+
+        // Reused damage rectangles so a drag only repaints where the shape was and is
+        private final Rectangle dragDamage = new Rectangle();
+        private final Rectangle dragBounds = new Rectangle();
+
+        // Cached layers, composited bottom to top. Each one is re-rendered only
+        // when its own state changes; shapes that are moving are drawn live.
+        // They have one pixel per device pixel, so they stay sharp on HiDPI screens.
+        private BufferedImage backgroundLayer;
+        private BufferedImage targetLayer;
+        private BufferedImage shapeLayer;
+        private BufferedImage hudLayer;
+        private GraphicsConfiguration layersConfig;
+        private double layerScaleX = 1;
+        private double layerScaleY = 1;
+        private int layersWidth;
+        private int layersHeight;
+        private boolean backgroundDirty = true;
+        private boolean targetsDirty = true;
+        private boolean shapesDirty = true;
+        private boolean hudDirty = true;
+
+        private final int boardWidth;
+        private final int boardHeight;
+        private final int pieceSize;
 
         public GamePanel() {
-            setBackground(new Color(255, 248, 220)); // Cream background
-            initializeShapesAndTargets();
+            this(BoardGenerator.classic());
+        }
+
+        public GamePanel(BoardGenerator.Board board) {
+            setBackground(Theme.CREAM); // Cream background
+            shapes = board.shapes();
+            targets = board.targets();
+            boardWidth = board.width();
+            boardHeight = board.height();
+            pieceSize = board.pieceSize();
+            setPreferredSize(new Dimension(boardWidth, boardHeight));
+            buildIndexes();
+            updateProgressText();
             setupMouseListeners();
         }
 
-        private void initializeShapesAndTargets() {
-            // Create 6 different shapes with different colors and types
-            shapes = new DraggableShape[] {
-                    new DraggableShape(80, 80, ShapeType.CIRCLE, new Color(255, 107, 107)), // Red circle
-                    new DraggableShape(80, 180, ShapeType.SQUARE, new Color(76, 175, 80)), // Green square
-                    new DraggableShape(80, 280, ShapeType.TRIANGLE, new Color(33, 150, 243)), // Blue triangle
-                    new DraggableShape(80, 380, ShapeType.STAR, new Color(255, 152, 0)), // Orange star
-                    new DraggableShape(80, 480, ShapeType.HEART, new Color(156, 39, 176)), // Purple heart
-                    new DraggableShape(80, 580, ShapeType.DIAMOND, new Color(255, 193, 7)) // Yellow diamond
-            };
+        private void buildIndexes() {
+            // Cells about one piece wide
+            shapeIndex = new SpatialGrid(boardWidth, boardHeight, pieceSize);
+            targetIndex = new SpatialGrid(boardWidth, boardHeight, pieceSize);
+            for (int i = 0; i < shapes.length; i++) {
+                indexShape(i);
+            }
+            for (int i = 0; i < targets.length; i++) {
+                Rectangle bounds = targets[i].getBounds();
+                targetIndex.put(i, bounds.x, bounds.y, bounds.width, bounds.height);
+            }
+            hits = new int[Math.max(shapes.length, targets.length)];
+        }
 
-            // Create corresponding target zones (scrambled order for challenge)
-            ArrayList<TargetZone> targetList = new ArrayList<>();
-            targetList.add(new TargetZone(650, 80, ShapeType.CIRCLE, new Color(255, 107, 107)));
-            targetList.add(new TargetZone(650, 180, ShapeType.SQUARE, new Color(76, 175, 80)));
-            targetList.add(new TargetZone(650, 280, ShapeType.TRIANGLE, new Color(33, 150, 243)));
-            targetList.add(new TargetZone(650, 380, ShapeType.STAR, new Color(255, 152, 0)));
-            targetList.add(new TargetZone(650, 480, ShapeType.HEART, new Color(156, 39, 176)));
-            targetList.add(new TargetZone(650, 580, ShapeType.DIAMOND, new Color(255, 193, 7)));
+        private void indexShape(int i) {
+            DraggableShape shape = shapes[i];
+            shapeIndex.put(i, shape.getX(), shape.getY(), shape.getSize(), shape.getSize());
+        }
+
+        // Topmost unmatched shape under the point, or -1. Later shapes are drawn on top.
+        private int shapeAt(int px, int py) {
+            int found = -1;
+            int count = shapeIndex.query(px, py, hits);
+            for (int i = 0; i < count; i++) {
+                int candidate = hits[i];
+                if (candidate > found && shapes[candidate].contains(px, py)) {
+                    found = candidate;
+                }
+            }
+            return found;
+        }
 
-            // Shuffle for randomness
-            Collections.shuffle(targetList);
-            targets = targetList.toArray(new TargetZone[0]);
+        // Free target under the point that accepts the shape, or -1
+        private int targetFor(DraggableShape shape, int px, int py) {
+            int count = targetIndex.query(px, py, hits);
+            for (int i = 0; i < count; i++) {
+                TargetZone target = targets[hits[i]];
+                if (target.contains(px, py) && shape.getShapeType() == target.getShapeType()
+                        && shape.getColor().equals(target.getColor())) {
+                    return hits[i];
+                }
+            }
+            return -1;
         }
 
         private void setupMouseListeners() {
             addMouseListener(new MouseAdapter() {
                 public void mousePressed(MouseEvent e) {
-                    if (gameCompleted) return;
-
-                    for (DraggableShape shape : shapes) {
-                        if (shape.contains(e.getPoint()) && !shape.isMatched()) {
-                            draggedShape = shape;
-                            break;
-                        }
+                    // A second button or touch while a piece is held doesn't take another one
+                    if (gameCompleted || dragged >= 0) return;
+
+                    int index = shapeAt(e.getX(), e.getY());
+                    if (index >= 0) {
+                        TweenEngine.getInstance().cancel(shapes[index]); // caught on its way back
+                        dragged = index;
+                        shapeIndex.remove(index); // not pickable while held
+                        shapesDirty = true; // it leaves the resting layer
                     }
                 }
 
                 public void mouseReleased(MouseEvent e) {
-                    if (draggedShape != null && !gameCompleted) {
-                        boolean matched = false;
-
-                        for (TargetZone target : targets) {
-                            if (target.contains(e.getPoint()) && !target.isOccupied() &&
-                                    draggedShape.getShapeType() == target.getShapeType() &&
-                                    draggedShape.getColor().equals(target.getColor())) {
-
-                                // Successful match!
-                                draggedShape.snapTo(target.getBounds());
-                                draggedShape.setMatched(true);
-                                target.setOccupied(true);
-                                correctMatches++;
-                                matched = true;
-
-                                // Play success sound
-                                playSuccessSound();
-
-                                // Check if game is complete
-                                if (correctMatches >= TOTAL_SHAPES) {
-                                    gameCompleted = true;
-                                    Timer delay = new Timer(500, evt -> showVictoryMessage());
-                                    delay.setRepeats(false);
-                                    delay.start();
-                                }
-                                break;
+                    if (dragged >= 0 && !gameCompleted) {
+                        DraggableShape draggedShape = shapes[dragged];
+                        int match = targetFor(draggedShape, e.getX(), e.getY());
+
+                        if (match >= 0) {
+                            TargetZone target = targets[match];
+
+                            // Successful match!
+                            draggedShape.snapTo(target.getBounds());
+                            draggedShape.setMatched(true);
+                            target.setOccupied(true);
+                            targetIndex.remove(match); // occupied targets take no more drops
+                            correctMatches++;
+                            updateProgressText();
+                            targetsDirty = true;
+                            hudDirty = true;
+
+                            // Play success sound
+                            playSuccessSound();
+
+                            // Check if game is complete
+                            if (correctMatches >= shapes.length) {
+                                gameCompleted = true;
+                                victoryDelay = new Timer(500, evt -> showVictoryMessage());
+                                victoryDelay.setRepeats(false);
+                                victoryDelay.start();
                             }
-                        }
-
-                        if (!matched) {
+                        } else {
                             // Wrong match - play error sound
                             playErrorSound();
 
                             // Animate shape back to original position
-                            animateShapeBack(draggedShape);
+                            animateShapeBack(dragged);
                         }
 
-                        draggedShape = null;
+                        dragged = -1;
+                        shapesDirty = true;
                         repaint();
                     }
                 }
@@ -140,63 +294,166 @@ public class ShapeMatchingGame extends JFrame {
 
             addMouseMotionListener(new MouseAdapter() {
                 public void mouseDragged(MouseEvent e) {
-                    if (draggedShape != null && !gameCompleted) {
+                    if (dragged >= 0 && !gameCompleted) {
+                        DraggableShape draggedShape = shapes[dragged];
+                        draggedShape.getPaintBounds(dragDamage);
                         draggedShape.setPosition(e.getX(), e.getY());
-                        repaint();
+                        draggedShape.getPaintBounds(dragBounds);
+                        dragDamage.add(dragBounds);
+                        repaint(dragDamage);
                     }
                 }
             });
         }
 
-        private void animateShapeBack(DraggableShape shape) {
-            Point originalPos = shape.getOriginalPosition();
-            Point currentPos = new Point(shape.getX(), shape.getY());
-
-            Timer animTimer = new Timer(20, null);
-            animTimer.addActionListener(e -> {
-                double progress = 0.1; // Speed of animation
-                int newX = (int)(currentPos.x + (originalPos.x - currentPos.x) * progress);
-                int newY = (int)(currentPos.y + (originalPos.y - currentPos.y) * progress);
+        private void animateShapeBack(int index) {
+            DraggableShape shape = shapes[index];
+            shape.setReturning(true);
+            TweenEngine.getInstance().start(shape, index, shape.getX(), shape.getY(),
+                    shape.getOriginalX(), shape.getOriginalY(), RETURN_SECONDS, TweenEngine.EASE_OUT_CUBIC,
+                    returnListener);
+        }
 
-                shape.setPosition(newX + shape.getSize()/2, newY + shape.getSize()/2);
-                repaint();
+        // One listener for every returning shape; the tween tag is the shape's index
+        private final TweenEngine.Listener returnListener = new TweenEngine.Listener() {
+            @Override
+            public void tweenStepped(TweenEngine.Target target, int tag) {
+                indexShape(tag); // can be caught again on the way back
+                AnimationClock.getInstance().requestRepaint(GamePanel.this);
+            }
 
-                if (Math.abs(newX - originalPos.x) < 5 && Math.abs(newY - originalPos.y) < 5) {
-                    shape.resetToOriginal();
-                    animTimer.stop();
+            @Override
+            public void tweenFinished(TweenEngine.Target target, int tag, boolean completed) {
+                shapes[tag].setReturning(false);
+                if (completed) {
+                    indexShape(tag);
+                    shapesDirty = true; // back at rest, it joins the cached layer again
                     repaint();
                 }
-            });
-            animTimer.start();
+            }
+        };
+
+        @Override
+        public void removeNotify() {
+            TweenEngine.getInstance().cancelAll(returnListener);
+            if (victoryDelay != null) {
+                victoryDelay.stop(); // the board was left before the message came up
+            }
+            super.removeNotify();
         }
 
         @Override
         protected void paintComponent(Graphics g) {
-            super.paintComponent(g);
+            // The background layer is opaque and covers the whole panel, so
+            // there is no need for super.paintComponent to clear it first.
+            int width = getWidth();
+            int height = getHeight();
+            if (width <= 0 || height <= 0) return;
+
+            long hudStart = PerformanceHud.beginPaint();
+            GraphicsConfiguration gc = getGraphicsConfiguration();
+            if (backgroundLayer == null || layersWidth != width || layersHeight != height || gc != layersConfig) {
+                createLayers(gc, width, height);
+            }
+
+            if (backgroundDirty) {
+                Graphics2D layer = beginLayer(backgroundLayer);
+                layer.setColor(getBackground());
+                layer.fillRect(0, 0, width, height);
+                // Draw title and instructions
+                drawInstructions(layer);
+                layer.dispose();
+                backgroundDirty = false;
+            }
+            if (targetsDirty) {
+                Graphics2D layer = beginLayer(targetLayer);
+                // Draw target zones with labels
+                drawTargetZones(layer);
+                layer.dispose();
+                targetsDirty = false;
+            }
+            if (shapesDirty) {
+                Graphics2D layer = beginLayer(shapeLayer);
+                // Draw shapes that are sitting still
+                drawShapes(layer, false);
+                layer.dispose();
+                shapesDirty = false;
+            }
+            if (hudDirty) {
+                Graphics2D layer = beginLayer(hudLayer);
+                // Draw progress
+                drawProgress(layer);
+                layer.dispose();
+                hudDirty = false;
+            }
+
             Graphics2D g2d = (Graphics2D) g;
-            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            boolean scaled = layerScaleX != 1 || layerScaleY != 1;
+            AffineTransform logical = scaled ? g2d.getTransform() : null;
+            // Undo the screen scale for the layers, so their pixels land 1:1 on the device's
+            if (scaled) g2d.scale(1 / layerScaleX, 1 / layerScaleY);
+            g2d.drawImage(backgroundLayer, 0, 0, null);
+            g2d.drawImage(targetLayer, 0, 0, null);
+            g2d.drawImage(shapeLayer, 0, 0, null);
+            if (scaled) g2d.setTransform(logical);
+            drawShapes(g2d, true);
+            if (scaled) g2d.scale(1 / layerScaleX, 1 / layerScaleY);
+            g2d.drawImage(hudLayer, 0, 0, null);
+            if (scaled) g2d.setTransform(logical);
+            PerformanceHud.endPaint(PerformanceHud.Slot.BOARD, hudStart);
+        }
 
-            // Draw title and instructions
-            drawInstructions(g2d);
+        private void createLayers(GraphicsConfiguration gc, int width, int height) {
+            AffineTransform screen = gc != null ? gc.getDefaultTransform() : null;
+            layerScaleX = screen != null ? screen.getScaleX() : 1;
+            layerScaleY = screen != null ? screen.getScaleY() : 1;
+            int deviceWidth = (int) Math.ceil(width * layerScaleX);
+            int deviceHeight = (int) Math.ceil(height * layerScaleY);
+
+            backgroundLayer = createLayer(gc, deviceWidth, deviceHeight, Transparency.OPAQUE);
+            targetLayer = createLayer(gc, deviceWidth, deviceHeight, Transparency.TRANSLUCENT);
+            shapeLayer = createLayer(gc, deviceWidth, deviceHeight, Transparency.TRANSLUCENT);
+            hudLayer = createLayer(gc, deviceWidth, deviceHeight, Transparency.TRANSLUCENT);
+            layersConfig = gc;
+            layersWidth = width;
+            layersHeight = height;
+            backgroundDirty = targetsDirty = shapesDirty = hudDirty = true;
+        }
 
-            // Draw target zones with labels
-            drawTargetZones(g2d);
+        private BufferedImage createLayer(GraphicsConfiguration gc, int width, int height, int transparency) {
+            if (gc != null) {
+                return gc.createCompatibleImage(width, height, transparency);
+            }
+            return new BufferedImage(width, height, transparency == Transparency.OPAQUE
+                    ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB_PRE);
+        }
 
-            // Draw shapes
-            drawShapes(g2d);
+        // Clears a layer to fully transparent and returns an antialiased Graphics for it, in panel coordinates
+        private Graphics2D beginLayer(BufferedImage layer) {
+            Graphics2D g2d = layer.createGraphics();
+            g2d.setComposite(AlphaComposite.Clear);
+            g2d.fillRect(0, 0, layer.getWidth(), layer.getHeight());
+            g2d.setComposite(AlphaComposite.SrcOver);
+            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2d.scale(layerScaleX, layerScaleY);
+            return g2d;
+        }
 
-            // Draw progress
-            drawProgress(g2d);
+        private boolean isMoving(DraggableShape shape) {
+            return (dragged >= 0 && shape == shapes[dragged]) || shape.isReturning();
         }
 
         private void drawInstructions(Graphics2D g2d) {
-            g2d.setFont(new Font("Comic Sans MS", Font.BOLD, 24));
-            g2d.setColor(new Color(102, 51, 153));
-            g2d.drawString("🎯 Drag shapes to matching targets!", 250, 40);
+            // Laid out for the classic board, moved along to stay centered on bigger ones
+            int shift = (boardWidth - BoardGenerator.CLASSIC_WIDTH) / 2;
 
-            g2d.setFont(new Font("Arial", Font.PLAIN, 16));
-            g2d.setColor(new Color(85, 85, 85));
-            g2d.drawString("Match the color AND shape type!", 320, 65);
+            g2d.setFont(Theme.HEADING_FONT);
+            g2d.setColor(Theme.PURPLE);
+            g2d.drawString("🎯 Drag shapes to matching targets!", 250 + shift, 40);
+
+            g2d.setFont(Theme.BODY_FONT);
+            g2d.setColor(Theme.TEXT_GRAY);
+            g2d.drawString("Match the color AND shape type!", 320 + shift, 65);
         }
 
         private void drawTargetZones(Graphics2D g2d) {
@@ -205,19 +462,18 @@ public class ShapeMatchingGame extends JFrame {
             }
         }
 
-        private void drawShapes(Graphics2D g2d) {
+        private void drawShapes(Graphics2D g2d, boolean moving) {
             for (DraggableShape shape : shapes) {
-                if (!shape.isMatched()) {
+                if (!shape.isMatched() && isMoving(shape) == moving) {
                     shape.draw(g2d);
                 }
             }
         }
 
         private void drawProgress(Graphics2D g2d) {
-            g2d.setFont(new Font("Arial", Font.BOLD, 18));
-            g2d.setColor(new Color(76, 175, 80));
-            String progress = "Progress: " + correctMatches + "/" + TOTAL_SHAPES + " ⭐";
-            g2d.drawString(progress, 20, 30);
+            g2d.setFont(Theme.BUTTON_LARGE_FONT);
+            g2d.setColor(Theme.GREEN);
+            g2d.drawString(progressText, 20, 30);
 
             // Progress bar
             int barWidth = 200;
@@ -225,29 +481,27 @@ public class ShapeMatchingGame extends JFrame {
             int barX = 20;
             int barY = 40;
 
-            g2d.setColor(new Color(200, 200, 200));
+            g2d.setColor(Theme.TRACK_GRAY);
             g2d.fillRoundRect(barX, barY, barWidth, barHeight, 10, 10);
 
-            g2d.setColor(new Color(76, 175, 80));
-            int progressWidth = (int)((double)correctMatches / TOTAL_SHAPES * barWidth);
+            g2d.setColor(Theme.GREEN);
+            int progressWidth = (int)((double)correctMatches / shapes.length * barWidth);
             g2d.fillRoundRect(barX, barY, progressWidth, barHeight, 10, 10);
         }
 
+        // Built when the score changes rather than on every paint
+        private void updateProgressText() {
+            progressText = "Progress: " + correctMatches + "/" + shapes.length + " ⭐";
+        }
+
+        // Looked up when played, so a board built without a window (benchmarks) never needs one
         private void playSuccessSound() {
-            // Play a success beep
-            Toolkit.getDefaultToolkit().beep();
+            SceneManager.getInstance().getSoundPlayer().playSynthEffect(Synthesizer.Preset.CHIME);
         }
 
         private void playErrorSound() {
-            // Different tone for error (you can enhance this with actual sound files)
-            new Thread(() -> {
-                try {
-                    Thread.sleep(100);
-                    Toolkit.getDefaultToolkit().beep();
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                }
-            }).start();
+            // Just another trigger on the mixer, however quickly wrong drops come
+            SceneManager.getInstance().getSoundPlayer().playSynthEffect(Synthesizer.Preset.BUZZ);
         }
 
         private void showVictoryMessage() {
@@ -268,23 +522,16 @@ public class ShapeMatchingGame extends JFrame {
                     options[0]
             );
 
+            SceneManager manager = SceneManager.getInstance();
             switch (choice) {
                 case 0: // Play Again
-                    dispose();
-                    new ShapeMatchingGame();
+                    manager.show(SceneManager.SceneId.SHAPE_MATCHING);
                     break;
                 case 1: // Main Menu
-                    dispose();
-                    new GameFrame();
+                    manager.show(SceneManager.SceneId.MENU);
                     break;
                 case 2: // Medium Mode
-                    dispose();
-                    try {
-                        new NumberMatchingGame();
-                    } catch (Exception e) {
-                        JOptionPane.showMessageDialog(null, "Medium mode coming soon!");
-                        new GameFrame();
-                    }
+                    manager.show(SceneManager.SceneId.NUMBER_MATCHING);
                     break;
             }
         }
@@ -295,93 +542,47 @@ public class ShapeMatchingGame extends JFrame {
         CIRCLE, SQUARE, TRIANGLE, STAR, HEART, DIAMOND
     }
 
-    class DraggableShape {
+    static class DraggableShape implements TweenEngine.Target {
+        static final int DEFAULT_SIZE = 70;
+
         private int x, y, originalX, originalY;
-        private final int SIZE = 70;
+        private final int size;
         private Color color;
         private ShapeType shapeType;
         private boolean matched = false;
+        private boolean returning = false; // animating back after a wrong drop
 
         public DraggableShape(int x, int y, ShapeType shapeType, Color color) {
+            this(x, y, shapeType, color, DEFAULT_SIZE);
+        }
+
+        public DraggableShape(int x, int y, ShapeType shapeType, Color color, int size) {
             this.x = this.originalX = x;
             this.y = this.originalY = y;
             this.shapeType = shapeType;
             this.color = color;
+            this.size = size;
         }
 
         public void draw(Graphics2D g2d) {
-            // Add shadow effect
-            g2d.setColor(new Color(0, 0, 0, 30));
-            drawShape(g2d, x + 3, y + 3);
-
-            // Draw main shape
-            g2d.setColor(color);
-            drawShape(g2d, x, y);
-
-            // Add highlight
-            g2d.setColor(new Color(255, 255, 255, 80));
-            drawShape(g2d, x - 1, y - 1);
+            // Shadow, body and highlight come pre-composed in one cached sprite
+            ShapeSpriteCache.draw(g2d, shapeType, color, x, y, size);
         }
 
-        private void drawShape(Graphics2D g2d, int drawX, int drawY) {
-            switch (shapeType) {
-                case CIRCLE:
-                    g2d.fillOval(drawX, drawY, SIZE, SIZE);
-                    break;
-                case SQUARE:
-                    g2d.fillRect(drawX, drawY, SIZE, SIZE);
-                    break;
-                case TRIANGLE:
-                    int[] xPoints = {drawX + SIZE/2, drawX, drawX + SIZE};
-                    int[] yPoints = {drawY, drawY + SIZE, drawY + SIZE};
-                    g2d.fillPolygon(xPoints, yPoints, 3);
-                    break;
-                case STAR:
-                    drawStar(g2d, drawX + SIZE/2, drawY + SIZE/2, SIZE/2);
-                    break;
-                case HEART:
-                    drawHeart(g2d, drawX, drawY, SIZE);
-                    break;
-                case DIAMOND:
-                    int[] diamondX = {drawX + SIZE/2, drawX, drawX + SIZE/2, drawX + SIZE};
-                    int[] diamondY = {drawY, drawY + SIZE/2, drawY + SIZE, drawY + SIZE/2};
-                    g2d.fillPolygon(diamondX, diamondY, 4);
-                    break;
-            }
-        }
-
-        private void drawStar(Graphics2D g2d, int centerX, int centerY, int radius) {
-            int[] xPoints = new int[10];
-            int[] yPoints = new int[10];
-
-            for (int i = 0; i < 10; i++) {
-                double angle = Math.PI * i / 5;
-                int r = (i % 2 == 0) ? radius : radius / 2;
-                xPoints[i] = (int)(centerX + r * Math.cos(angle - Math.PI/2));
-                yPoints[i] = (int)(centerY + r * Math.sin(angle - Math.PI/2));
-            }
-            g2d.fillPolygon(xPoints, yPoints, 10);
-        }
-
-        private void drawHeart(Graphics2D g2d, int x, int y, int size) {
-            // Create heart shape using curves
-            GeneralPath heart = new GeneralPath();
-            heart.moveTo(x + size/2, y + size/4);
-            heart.curveTo(x + size/2, y, x, y, x, y + size/4);
-            heart.curveTo(x, y + size/2, x + size/2, y + 3*size/4, x + size/2, y + size);
-            heart.curveTo(x + size/2, y + 3*size/4, x + size, y + size/2, x + size, y + size/4);
-            heart.curveTo(x + size, y, x + size/2, y, x + size/2, y + size/4);
-            heart.closePath();
-            g2d.fill(heart);
+        // Exact outline, so clicks in the corners around a star or heart miss it
+        public boolean contains(int px, int py) {
+            return ShapeGeometry.contains(shapeType, x, y, size, px, py);
         }
 
-        public boolean contains(Point p) {
-            return new Rectangle(x, y, SIZE, SIZE).contains(p);
+        // Area touched by draw(): highlight at -1, shadow at +3, plus a pixel of antialiasing
+        public Rectangle getPaintBounds(Rectangle out) {
+            out.setBounds(x - 2, y - 2, size + 6, size + 6);
+            return out;
         }
 
         public void setPosition(int mx, int my) {
-            this.x = mx - SIZE / 2;
-            this.y = my - SIZE / 2;
+            this.x = mx - size / 2;
+            this.y = my - size / 2;
         }
 
         public void snapTo(Rectangle target) {
@@ -394,80 +595,74 @@ public class ShapeMatchingGame extends JFrame {
             this.y = originalY;
         }
 
+        @Override
+        public void setTweenPosition(float x, float y) {
+            this.x = Math.round(x);
+            this.y = Math.round(y);
+        }
+
         // Getters and setters
         public Color getColor() { return color; }
         public ShapeType getShapeType() { return shapeType; }
         public boolean isMatched() { return matched; }
         public void setMatched(boolean matched) { this.matched = matched; }
+        public boolean isReturning() { return returning; }
+        public void setReturning(boolean returning) { this.returning = returning; }
         public Point getOriginalPosition() { return new Point(originalX, originalY); }
+        public int getOriginalX() { return originalX; }
+        public int getOriginalY() { return originalY; }
         public int getX() { return x; }
         public int getY() { return y; }
-        public int getSize() { return SIZE; }
+        public int getSize() { return size; }
     }
 
-    class TargetZone {
+    static class TargetZone {
         private Rectangle bounds;
         private ShapeType shapeType;
         private Color color;
+        // Targets never move, so everything they paint is worked out once here
+        private Shape outline;
+        private Color hintColor;
+        private String label;
+        private int labelX;
         private boolean occupied = false;
 
         public TargetZone(int x, int y, ShapeType shapeType, Color color) {
-            this.bounds = new Rectangle(x, y, 70, 70);
+            this(x, y, shapeType, color, DraggableShape.DEFAULT_SIZE);
+        }
+
+        public TargetZone(int x, int y, ShapeType shapeType, Color color, int size) {
+            this.bounds = new Rectangle(x, y, size, size);
             this.shapeType = shapeType;
             this.color = color;
+            this.outline = ShapeGeometry.place(shapeType, x, y, bounds.width);
+            this.hintColor = Theme.withAlpha(color, 100);
+            this.label = shapeType.toString();
+            this.labelX = bounds.x + (bounds.width - Theme.textWidth(Theme.LABEL_FONT, label)) / 2;
         }
 
         public void draw(Graphics2D g2d) {
             // Draw target zone background
-            g2d.setColor(new Color(220, 220, 220, 100));
+            g2d.setColor(Theme.TARGET_FILL);
             g2d.fillRoundRect(bounds.x - 5, bounds.y - 5, bounds.width + 10, bounds.height + 10, 15, 15);
 
             // Draw dashed border
-            g2d.setStroke(new BasicStroke(2, BasicStroke.CAP_BUTT, BasicStroke.JOIN_BEVEL, 0, new float[]{5}, 0));
+            g2d.setStroke(Theme.DASHED_STROKE);
             g2d.setColor(color);
             g2d.drawRoundRect(bounds.x - 5, bounds.y - 5, bounds.width + 10, bounds.height + 10, 15, 15);
 
             // Draw shape outline as hint
-            g2d.setStroke(new BasicStroke(2));
-            g2d.setColor(new Color(color.getRed(), color.getGreen(), color.getBlue(), 100));
-            drawShapeOutline(g2d);
+            g2d.setStroke(Theme.OUTLINE_STROKE);
+            g2d.setColor(hintColor);
+            g2d.draw(outline);
 
             // Label
-            g2d.setColor(new Color(85, 85, 85));
-            g2d.setFont(new Font("Arial", Font.BOLD, 12));
-            String label = shapeType.toString();
-            FontMetrics fm = g2d.getFontMetrics();
-            int labelX = bounds.x + (bounds.width - fm.stringWidth(label)) / 2;
+            g2d.setColor(Theme.TEXT_GRAY);
+            g2d.setFont(Theme.LABEL_FONT);
             g2d.drawString(label, labelX, bounds.y - 10);
         }
 
-        private void drawShapeOutline(Graphics2D g2d) {
-            int x = bounds.x;
-            int y = bounds.y;
-            int size = bounds.width;
-
-            switch (shapeType) {
-                case CIRCLE:
-                    g2d.drawOval(x, y, size, size);
-                    break;
-                case SQUARE:
-                    g2d.drawRect(x, y, size, size);
-                    break;
-                case TRIANGLE:
-                    int[] xPoints = {x + size/2, x, x + size};
-                    int[] yPoints = {y, y + size, y + size};
-                    g2d.drawPolygon(xPoints, yPoints, 3);
-                    break;
-                case DIAMOND:
-                    int[] diamondX = {x + size/2, x, x + size/2, x + size};
-                    int[] diamondY = {y, y + size/2, y + size, y + size/2};
-                    g2d.drawPolygon(diamondX, diamondY, 4);
-                    break;
-                // Add other shape outlines as needed
-            }
-        }
-
-        public boolean contains(Point p) { return bounds.contains(p); }
+        public boolean contains(int px, int py) { return bounds.contains(px, py); }
         public Rectangle getBounds() { return bounds; }
         public ShapeType getShapeType() { return shapeType; }
         public Color getColor() { return color; }
@@ -0,0 +1,206 @@
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pre-rasterized images of the draggable shapes.
+ *
+ * Each sprite holds the whole composed look of a shape (shadow, body and
+ * highlight) so painting a shape is a single drawImage. Sprites are keyed by
+ * shape type, color, size and device scale, and are made compatible with the
+ * screen they are drawn on. When shapes start being drawn on a different
+ * GraphicsConfiguration (display change, window moved to another monitor) the
+ * cache is dropped and rebuilt. Only used from the EDT, except prerender(),
+ * which renders a board's sprites on any thread for adopt() to add later.
+ */
+public final class ShapeSpriteCache {
+    // Room around the shape for the -1 highlight, the +3 shadow and antialiasing
+    public static final int PAD = 2;
+    private static final int EXTRA = PAD + 4;
+
+    private static final Color SHADOW = new Color(0, 0, 0, 30);
+    private static final Color HIGHLIGHT = new Color(255, 255, 255, 80);
+
+    private static final class Key {
+        ShapeMatchingGame.ShapeType type;
+        int rgb;
+        int size;
+        int scalePercent;
+
+        Key set(ShapeMatchingGame.ShapeType type, int rgb, int size, int scalePercent) {
+            this.type = type;
+            this.rgb = rgb;
+            this.size = size;
+            this.scalePercent = scalePercent;
+            return this;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return type == other.type && rgb == other.rgb && size == other.size && scalePercent == other.scalePercent;
+        }
+
+        @Override
+        public int hashCode() {
+            return ((type.ordinal() * 31 + rgb) * 31 + size) * 31 + scalePercent;
+        }
+    }
+
+    /** Sprites rendered ahead of time for one screen, waiting for adopt(). */
+    public static final class Batch {
+        private final GraphicsConfiguration gc;
+        private final List<Key> keys = new ArrayList<>();
+        private final List<Image> images = new ArrayList<>();
+
+        private Batch(GraphicsConfiguration gc) {
+            this.gc = gc;
+        }
+    }
+
+    private static final Map<Key, Image> sprites = new HashMap<>();
+    // Reused for lookups so a cache hit allocates nothing
+    private static final Key lookup = new Key();
+    private static GraphicsConfiguration spriteConfig;
+    private static int configScalePercent = 100;
+    private static long hits = 0;
+    private static long misses = 0;
+
+    private ShapeSpriteCache() {
+    }
+
+    /** Draws the composed shape with its top-left corner at (x, y). */
+    public static void draw(Graphics2D g2d, ShapeMatchingGame.ShapeType type, Color color, int x, int y, int size) {
+        GraphicsConfiguration gc = g2d.getDeviceConfiguration();
+        if (gc != spriteConfig && !(spriteConfig != null && isOffscreen(gc))) {
+            switchConfig(gc);
+        }
+        // Offscreen layers are made compatible with the screen, so screen sprites suit them too
+        int scalePercent = configScalePercent;
+        Image sprite = getSprite(spriteConfig, type, color, size, scalePercent);
+
+        int extent = size + EXTRA;
+        if (scalePercent == 100) {
+            g2d.drawImage(sprite, x - PAD, y - PAD, null);
+        } else {
+            g2d.drawImage(sprite, x - PAD, y - PAD, extent, extent, null);
+        }
+    }
+
+    static Image getSprite(GraphicsConfiguration gc, ShapeMatchingGame.ShapeType type, Color color,
+                           int size, int scalePercent) {
+        if (gc != spriteConfig) {
+            switchConfig(gc);
+        }
+
+        Image sprite = sprites.get(lookup.set(type, color.getRGB(), size, scalePercent));
+        if (sprite != null) {
+            hits++;
+            return sprite;
+        }
+
+        misses++;
+        sprite = render(gc, type, color, size, scalePercent / 100.0);
+        sprites.put(new Key().set(type, color.getRGB(), size, scalePercent), sprite);
+        return sprite;
+    }
+
+    private static boolean isOffscreen(GraphicsConfiguration gc) {
+        return gc == null || gc.getDevice().getType() == GraphicsDevice.TYPE_IMAGE_BUFFER;
+    }
+
+    private static void switchConfig(GraphicsConfiguration gc) {
+        // Different display: images made for the old one may be the wrong format or scale
+        sprites.clear();
+        spriteConfig = gc;
+        configScalePercent = scalePercentOf(gc);
+    }
+
+    private static int scalePercentOf(GraphicsConfiguration gc) {
+        if (gc == null) return 100;
+        AffineTransform tx = gc.getDefaultTransform();
+        return (int) Math.round(Math.max(tx.getScaleX(), tx.getScaleY()) * 100);
+    }
+
+    /**
+     * Renders one sprite per distinct look among the shapes, for the given
+     * screen. Touches no shared state, so it may run on a background thread.
+     */
+    public static Batch prerender(GraphicsConfiguration gc, ShapeMatchingGame.DraggableShape[] shapes) {
+        Batch batch = new Batch(gc);
+        int scalePercent = scalePercentOf(gc);
+        for (ShapeMatchingGame.DraggableShape shape : shapes) {
+            Key key = new Key().set(shape.getShapeType(), shape.getColor().getRGB(), shape.getSize(), scalePercent);
+            if (batch.keys.contains(key)) continue;
+            batch.keys.add(key);
+            batch.images.add(render(gc, shape.getShapeType(), shape.getColor(), shape.getSize(), scalePercent / 100.0));
+        }
+        return batch;
+    }
+
+    /** Adds prerendered sprites to the cache, unless they were made for another screen. */
+    public static void adopt(Batch batch) {
+        if (spriteConfig == null && batch.gc != null) {
+            switchConfig(batch.gc);
+        }
+        if (batch.gc != spriteConfig) return;
+
+        for (int i = 0; i < batch.keys.size(); i++) {
+            sprites.putIfAbsent(batch.keys.get(i), batch.images.get(i));
+        }
+    }
+
+    private static Image render(GraphicsConfiguration gc, ShapeMatchingGame.ShapeType type, Color color,
+                                int size, double scale) {
+        int pixels = (int) Math.ceil((size + EXTRA) * scale);
+        BufferedImage image = gc != null
+                ? gc.createCompatibleImage(pixels, pixels, Transparency.TRANSLUCENT)
+                : new BufferedImage(pixels, pixels, BufferedImage.TYPE_INT_ARGB);
+
+        Graphics2D g2 = image.createGraphics();
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2.scale(scale, scale);
+        g2.translate(PAD, PAD);
+
+        // Same layering DraggableShape has always used
+        g2.setColor(SHADOW);
+        ShapeGeometry.fill(g2, type, 3, 3, size);
+        g2.setColor(color);
+        ShapeGeometry.fill(g2, type, 0, 0, size);
+        g2.setColor(HIGHLIGHT);
+        ShapeGeometry.fill(g2, type, -1, -1, size);
+
+        g2.dispose();
+        return image;
+    }
+
+    /** Drops every sprite; they are re-rendered on next use. */
+    public static void invalidate() {
+        sprites.clear();
+        spriteConfig = null;
+        configScalePercent = 100;
+    }
+
+    public static long getHitCount() {
+        return hits;
+    }
+
+    public static long getMissCount() {
+        return misses;
+    }
+
+    public static int size() {
+        return sprites.size();
+    }
+
+    public static String describeStats() {
+        long total = hits + misses;
+        double hitRate = total == 0 ? 0 : 100.0 * hits / total;
+        return String.format("sprites=%d hits=%d misses=%d (%.1f%% hit rate)", sprites.size(), hits, misses, hitRate);
+    }
+}
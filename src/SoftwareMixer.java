@@ -0,0 +1,398 @@
+import javax.sound.sampled.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Mixes every sound the app plays into one SourceDataLine.
+ *
+ * A single high-priority thread owns the line and all voices. Other threads
+ * talk to it only through a fixed ring of commands (play, stop, pause,
+ * gain/pan, master gain), claimed with a compare-and-set, so sending one
+ * never blocks or allocates. Each cycle the thread applies waiting commands,
+ * adds up bufferFrames frames of every playing voice with its gain and pan
+ * (unity at the centre), clamps the sum to 16 bits and writes it; the blocking write is
+ * what paces the loop. Latency is about two buffers, so a smaller
+ * bufferFrames means a quicker response at the cost of more wakeups.
+ *
+ * Sounds are PCM in SoundBank.FORMAT, either a whole sound in memory or
+ * memory-mapped (play) or a MusicStream read from its file as it goes (playStream).
+ * Both return a handle for later commands. When all MAX_VOICES are busy, a new sound takes over the voice
+ * that has been playing longest, looping voices (music) last.
+ */
+public final class SoftwareMixer {
+    public static final int MAX_VOICES = 16;
+    public static final int DEFAULT_BUFFER_FRAMES = 512; // about 12 ms at 44.1 kHz
+    private static final int COMMANDS = 256; // power of two
+    private static final int FRAME_SIZE = SoundBank.FORMAT.getFrameSize();
+    private static final double CENTER_BOOST = Math.sqrt(2); // 1 / cos(45°)
+
+    private static final int PLAY = 1;
+    private static final int STOP = 2;
+    private static final int PAUSE = 3;
+    private static final int RESUME = 4;
+    private static final int SET_GAIN = 5;
+    private static final int MASTER_GAIN = 6;
+    private static final int PLAY_STREAM = 7;
+
+    // Command ring: a slot's sequence says whether it's free for a producer
+    // (== position) or filled for the mixer thread (== position + 1)
+    private final AtomicLongArray sequence = new AtomicLongArray(COMMANDS);
+    private final AtomicLong tail = new AtomicLong();
+    private long head = 0; // mixer thread only
+    private final int[] commandType = new int[COMMANDS];
+    private final int[] commandHandle = new int[COMMANDS];
+    private final ByteBuffer[] commandPcm = new ByteBuffer[COMMANDS];
+    private final MusicStream[] commandStream = new MusicStream[COMMANDS];
+    private final float[] commandGain = new float[COMMANDS];
+    private final float[] commandPan = new float[COMMANDS];
+    private final boolean[] commandLoop = new boolean[COMMANDS];
+    private final AtomicInteger nextHandle = new AtomicInteger(1);
+    private final AtomicLong dropped = new AtomicLong();
+
+    // Voices, touched only by the mixer thread. A voice plays either a whole
+    // sound (voicePcm) or a stream (voiceStream, position within its chunk).
+    private final boolean[] voiceActive = new boolean[MAX_VOICES];
+    private final ByteBuffer[] voicePcm = new ByteBuffer[MAX_VOICES];
+    private final MusicStream[] voiceStream = new MusicStream[MAX_VOICES];
+    private final int[] voiceHandle = new int[MAX_VOICES];
+    private final int[] voicePosition = new int[MAX_VOICES]; // in bytes
+    private final float[] voiceLeft = new float[MAX_VOICES];
+    private final float[] voiceRight = new float[MAX_VOICES];
+    private final boolean[] voiceLoop = new boolean[MAX_VOICES];
+    private final boolean[] voicePaused = new boolean[MAX_VOICES];
+    private final long[] voiceStartOrder = new long[MAX_VOICES];
+    private long nextStartOrder = 1;
+    private float masterGain = 1f;
+    private volatile int activeVoices = 0;
+    private volatile long stolen = 0;
+
+    private final SourceDataLine line;
+    private final int bufferFrames;
+    private final int[] mixLeft;
+    private final int[] mixRight;
+    private final byte[] out;
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    /** Opens a line on the given mixer (null for the system default) and starts mixing into it. */
+    public static SoftwareMixer open(Mixer mixer, int bufferFrames) throws LineUnavailableException {
+        DataLine.Info info = new DataLine.Info(SourceDataLine.class, SoundBank.FORMAT);
+        SourceDataLine line = (SourceDataLine) (mixer != null ? mixer.getLine(info) : AudioSystem.getLine(info));
+        return new SoftwareMixer(line, bufferFrames);
+    }
+
+    /** Opens the line (unless it is already open) with room for two buffers and starts mixing into it. */
+    public SoftwareMixer(SourceDataLine line, int bufferFrames) throws LineUnavailableException {
+        this.line = line;
+        this.bufferFrames = bufferFrames;
+        mixLeft = new int[bufferFrames];
+        mixRight = new int[bufferFrames];
+        out = new byte[bufferFrames * FRAME_SIZE];
+        for (int i = 0; i < COMMANDS; i++) {
+            sequence.set(i, i);
+        }
+
+        if (!line.isOpen()) {
+            line.open(SoundBank.FORMAT, 2 * bufferFrames * FRAME_SIZE);
+        }
+        line.start();
+
+        thread = new Thread(this::run, "audio-mixer");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MAX_PRIORITY);
+        thread.start();
+    }
+
+    /**
+     * Starts playing PCM in SoundBank.FORMAT. gain is linear (1 is unchanged),
+     * pan goes from -1 (left) to 1 (right). The buffer is read from index 0 to
+     * its limit with absolute gets, so it can be shared. Returns the voice's
+     * handle, or 0 if too many commands are waiting.
+     */
+    public int play(ByteBuffer pcm, float gain, float pan, boolean loop) {
+        if (pcm.order() != ByteOrder.LITTLE_ENDIAN) {
+            throw new IllegalArgumentException("PCM must be read little endian");
+        }
+        int handle = nextHandle.getAndIncrement();
+        return send(PLAY, handle, pcm, null, gain, pan, loop) ? handle : 0;
+    }
+
+    /** Starts playing a stream; when the voice stops, the stream is stopped too. Returns 0 if dropped. */
+    public int playStream(MusicStream stream, float gain, float pan) {
+        int handle = nextHandle.getAndIncrement();
+        if (send(PLAY_STREAM, handle, null, stream, gain, pan, true)) {
+            return handle;
+        }
+        stream.stop();
+        return 0;
+    }
+
+    public void stop(int handle) {
+        send(STOP, handle, null, null, 0, 0, false);
+    }
+
+    public void pause(int handle) {
+        send(PAUSE, handle, null, null, 0, 0, false);
+    }
+
+    public void resume(int handle) {
+        send(RESUME, handle, null, null, 0, 0, false);
+    }
+
+    public void setGain(int handle, float gain, float pan) {
+        send(SET_GAIN, handle, null, null, gain, pan, false);
+    }
+
+    /** Scales everything, e.g. 0 to mute. */
+    public void setMasterGain(float gain) {
+        send(MASTER_GAIN, 0, null, null, gain, 0, false);
+    }
+
+    /** Stops mixing and closes the line. */
+    public void close() {
+        running = false;
+        try {
+            thread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (int i = 0; i < MAX_VOICES; i++) {
+            if (voiceActive[i]) endVoice(i);
+        }
+        line.stop();
+        line.flush();
+        line.close();
+    }
+
+    public int getBufferFrames() {
+        return bufferFrames;
+    }
+
+    public int getActiveVoiceCount() {
+        return activeVoices;
+    }
+
+    public long getStolenCount() {
+        return stolen;
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    private boolean send(int type, int handle, ByteBuffer pcm, MusicStream stream, float gain, float pan, boolean loop) {
+        long position;
+        int slot;
+        while (true) {
+            position = tail.get();
+            slot = (int) (position & (COMMANDS - 1));
+            long diff = sequence.get(slot) - position;
+            if (diff == 0) {
+                if (tail.compareAndSet(position, position + 1)) break;
+            } else if (diff < 0) {
+                dropped.incrementAndGet(); // the mixer thread is behind by a whole ring
+                return false;
+            }
+        }
+        commandType[slot] = type;
+        commandHandle[slot] = handle;
+        commandPcm[slot] = pcm;
+        commandStream[slot] = stream;
+        commandGain[slot] = gain;
+        commandPan[slot] = pan;
+        commandLoop[slot] = loop;
+        sequence.set(slot, position + 1); // publishes the fields above to the mixer thread
+        return true;
+    }
+
+    private void run() {
+        while (running) {
+            applyCommands();
+            mix();
+            line.write(out, 0, out.length);
+        }
+    }
+
+    private void applyCommands() {
+        while (true) {
+            int slot = (int) (head & (COMMANDS - 1));
+            if (sequence.get(slot) != head + 1) return;
+
+            int handle = commandHandle[slot];
+            float gain = commandGain[slot];
+            float pan = commandPan[slot];
+            switch (commandType[slot]) {
+                case PLAY -> startVoice(handle, commandPcm[slot], null, gain, pan, commandLoop[slot]);
+                case PLAY_STREAM -> startVoice(handle, null, commandStream[slot], gain, pan, true);
+                case STOP -> {
+                    int voice = voiceFor(handle);
+                    if (voice >= 0) endVoice(voice);
+                }
+                case PAUSE, RESUME -> {
+                    int voice = voiceFor(handle);
+                    if (voice >= 0) voicePaused[voice] = commandType[slot] == PAUSE;
+                }
+                case SET_GAIN -> {
+                    int voice = voiceFor(handle);
+                    if (voice >= 0) setVoiceGain(voice, gain, pan);
+                }
+                case MASTER_GAIN -> masterGain = gain;
+            }
+            commandPcm[slot] = null;
+            commandStream[slot] = null;
+            sequence.set(slot, head + COMMANDS); // free for the producer one lap later
+            head++;
+        }
+    }
+
+    private void startVoice(int handle, ByteBuffer pcm, MusicStream stream, float gain, float pan, boolean loop) {
+        if (stream == null && (pcm == null || pcm.limit() < FRAME_SIZE)) return;
+
+        // Free voice, else the oldest one-shot, else the oldest loop
+        int voice = -1;
+        int oldestOneShot = -1;
+        int oldest = 0;
+        for (int i = 0; i < MAX_VOICES; i++) {
+            if (!voiceActive[i]) {
+                voice = i;
+                break;
+            }
+            if (!voiceLoop[i] && (oldestOneShot < 0 || voiceStartOrder[i] < voiceStartOrder[oldestOneShot])) {
+                oldestOneShot = i;
+            }
+            if (voiceStartOrder[i] < voiceStartOrder[oldest]) {
+                oldest = i;
+            }
+        }
+        if (voice < 0) {
+            voice = oldestOneShot >= 0 ? oldestOneShot : oldest;
+            endVoice(voice);
+            stolen++;
+        }
+
+        voiceActive[voice] = true;
+        voicePcm[voice] = pcm;
+        voiceStream[voice] = stream;
+        voiceHandle[voice] = handle;
+        voicePosition[voice] = 0;
+        voiceLoop[voice] = loop;
+        voicePaused[voice] = false;
+        voiceStartOrder[voice] = nextStartOrder++;
+        setVoiceGain(voice, gain, pan);
+    }
+
+    // Equal power scaled so a centered voice plays at its own gain on both sides, like a Clip did;
+    // panning away only turns the far side down, hard left is 1 and 0
+    private void setVoiceGain(int voice, float gain, float pan) {
+        double angle = (Math.max(-1f, Math.min(1f, pan)) + 1) * Math.PI / 4;
+        voiceLeft[voice] = (float) (gain * Math.min(1, CENTER_BOOST * Math.cos(angle)));
+        voiceRight[voice] = (float) (gain * Math.min(1, CENTER_BOOST * Math.sin(angle)));
+    }
+
+    private void endVoice(int voice) {
+        if (voiceStream[voice] != null) {
+            voiceStream[voice].stop();
+        }
+        voiceActive[voice] = false;
+        voicePcm[voice] = null;
+        voiceStream[voice] = null;
+    }
+
+    private int voiceFor(int handle) {
+        for (int i = 0; i < MAX_VOICES; i++) {
+            if (voiceActive[i] && voiceHandle[i] == handle) return i;
+        }
+        return -1;
+    }
+
+    private void mix() {
+        Arrays.fill(mixLeft, 0);
+        Arrays.fill(mixRight, 0);
+
+        int active = 0;
+        for (int v = 0; v < MAX_VOICES; v++) {
+            if (!voiceActive[v]) continue;
+            if (!voicePaused[v]) {
+                if (voiceStream[v] != null) {
+                    mixStream(v);
+                } else {
+                    mixSound(v);
+                }
+            }
+            if (voiceActive[v]) active++;
+        }
+        activeVoices = active;
+
+        float master = masterGain;
+        for (int f = 0, b = 0; f < bufferFrames; f++, b += FRAME_SIZE) {
+            writeSample(out, b, clamp(mixLeft[f] * master));
+            writeSample(out, b + 2, clamp(mixRight[f] * master));
+        }
+    }
+
+    private void mixSound(int v) {
+        ByteBuffer pcm = voicePcm[v];
+        float left = voiceLeft[v];
+        float right = voiceRight[v];
+        int position = voicePosition[v];
+        int length = pcm.limit() - pcm.limit() % FRAME_SIZE;
+        for (int f = 0; f < bufferFrames; f++) {
+            if (position >= length) {
+                if (!voiceLoop[v]) {
+                    endVoice(v); // finished
+                    return;
+                }
+                position = 0;
+            }
+            mixLeft[f] += (int) (pcm.getShort(position) * left);
+            mixRight[f] += (int) (pcm.getShort(position + 2) * right);
+            position += FRAME_SIZE;
+        }
+        voicePosition[v] = position;
+    }
+
+    // Chunk by chunk; a chunk the reader hasn't filled yet is silence, not a wait
+    private void mixStream(int v) {
+        MusicStream stream = voiceStream[v];
+        float left = voiceLeft[v];
+        float right = voiceRight[v];
+        int position = voicePosition[v];
+        byte[] chunk = stream.chunk();
+        int length = chunk != null ? stream.chunkLength() : 0;
+        for (int f = 0; f < bufferFrames && chunk != null; f++) {
+            if (position >= length) {
+                stream.release();
+                position = 0;
+                chunk = stream.chunk();
+                if (chunk == null) break;
+                length = stream.chunkLength();
+            }
+            mixLeft[f] += (int) (sample(chunk, position) * left);
+            mixRight[f] += (int) (sample(chunk, position + 2) * right);
+            position += FRAME_SIZE;
+        }
+        voicePosition[v] = position;
+        if (chunk == null && stream.hasEnded()) {
+            endVoice(v);
+        }
+    }
+
+    private static int sample(byte[] pcm, int offset) {
+        return (short) ((pcm[offset + 1] << 8) | (pcm[offset] & 0xff)); // 16-bit little endian
+    }
+
+    private static int clamp(float value) {
+        if (value > Short.MAX_VALUE) return Short.MAX_VALUE;
+        if (value < Short.MIN_VALUE) return Short.MIN_VALUE;
+        return (int) value;
+    }
+
+    private static void writeSample(byte[] buffer, int offset, int value) {
+        buffer[offset] = (byte) value;
+        buffer[offset + 1] = (byte) (value >> 8);
+    }
+}
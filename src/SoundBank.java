@@ -0,0 +1,121 @@
+import javax.sound.sampled.*;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sounds decoded once and kept as raw PCM.
+ *
+ * Every sound is in the same FORMAT once it is loaded, which is the format
+ * the SoftwareMixer mixes in, so playing it later is just handing the bytes
+ * over. A WAV file already in FORMAT is memory-mapped and used in place;
+ * anything else is converted once, into the AudioCache (and mapped from
+ * there) when there is one, else into memory. Sounds are identified by a
+ * small int id that is handed out by load(). Thread safe.
+ */
+public final class SoundBank {
+    // 16-bit signed little-endian stereo, what the background music is converted to as well
+    public static final AudioFormat FORMAT = new AudioFormat(44100f, 16, 2, true, false);
+
+    private final List<String> names = new ArrayList<>();
+    private final List<ByteBuffer> sounds = new ArrayList<>();
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final AudioCache cache; // null converts into memory every time
+
+    public SoundBank() {
+        this(AudioCache.getInstance());
+    }
+
+    public SoundBank(AudioCache cache) {
+        this.cache = cache;
+    }
+
+    /** Decodes the resource and returns its id, or the existing id if it was loaded before. */
+    public synchronized int load(String name, URL resource) throws IOException, UnsupportedAudioFileException {
+        Integer existing = ids.get(name);
+        if (existing != null) return existing;
+
+        try {
+            WavFile wav = cache != null ? cache.open(resource) : WavFile.open(resource);
+            if (wav.getFormat().matches(FORMAT)) {
+                wav.load(); // fault the pages in now, not on the mixer thread
+                return add(name, wav.frames(), "Mapped");
+            }
+            try (AudioInputStream in = wav.openStream()) {
+                return add(name, decode(in), "Decoded");
+            }
+        } catch (UnsupportedAudioFileException e) {
+            // Not plain PCM WAV, or nothing AudioSystem could convert: let it say why below
+        } catch (IOException e) {
+            if (cache == null) throw e;
+            System.err.println("⚠️ Audio cache unavailable, decoding " + name + " in memory: " + e.getMessage());
+        }
+        try (AudioInputStream in = AudioSystem.getAudioInputStream(resource)) {
+            return add(name, decode(in), "Decoded");
+        }
+    }
+
+    /** Decodes an already opened stream, e.g. one generated in memory. */
+    public synchronized int load(String name, AudioInputStream in) throws IOException {
+        Integer existing = ids.get(name);
+        if (existing != null) return existing;
+        return add(name, decode(in), "Decoded");
+    }
+
+    /** The effect's id, or -1 if nothing was loaded under that name. */
+    public synchronized int idOf(String name) {
+        Integer id = ids.get(name);
+        return id == null ? -1 : id;
+    }
+
+    /** The sound's frames, little endian, from index 0 to the limit. Shared: read with absolute gets only. */
+    public synchronized ByteBuffer getPcm(int id) {
+        return sounds.get(id);
+    }
+
+    public synchronized String getName(int id) {
+        return names.get(id);
+    }
+
+    public synchronized int size() {
+        return sounds.size();
+    }
+
+    private int add(String name, ByteBuffer pcm, String how) {
+        int id = sounds.size();
+        names.add(name);
+        sounds.add(pcm);
+        ids.put(name, id);
+        System.out.printf("🔊 %s %s (%.2f s)%n", how, name,
+                pcm.limit() / (double) FORMAT.getFrameSize() / FORMAT.getFrameRate());
+        return id;
+    }
+
+    private static ByteBuffer decode(AudioInputStream in) throws IOException {
+        AudioInputStream converted = in;
+        if (!in.getFormat().matches(FORMAT)) {
+            if (!AudioSystem.isConversionSupported(FORMAT, in.getFormat())) {
+                throw new IOException("can't convert " + in.getFormat() + " to " + FORMAT);
+            }
+            converted = AudioSystem.getAudioInputStream(FORMAT, in);
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = converted.read(buffer)) > 0) {
+            out.write(buffer, 0, read);
+        }
+        // Whole frames only, so a line never gets half a sample
+        byte[] pcm = out.toByteArray();
+        int whole = pcm.length - pcm.length % FORMAT.getFrameSize();
+        return ByteBuffer.wrap(whole == pcm.length ? pcm : Arrays.copyOf(pcm, whole)).order(ByteOrder.LITTLE_ENDIAN);
+    }
+}
@@ -1,12 +1,23 @@
 import javax.sound.sampled.*;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.net.URL;
+import java.util.HashSet;
+import java.util.Set;
 
 public class SoundPlayer {
-    private Clip backgroundClip;
     private boolean soundEnabled = true;
     private boolean isMuted = false;
     private boolean isPlaying = false; // Track if music is currently playing
 
+    // Effects are mapped or decoded once, music is streamed; both are mixed into a single line
+    private final SoundBank soundBank = new SoundBank();
+    private final Set<String> missingEffects = new HashSet<>();
+    private SoftwareMixer mixer;
+    private boolean mixerUnavailable = false;
+    private int musicHandle = 0; // 0 when no track is loaded
+    private boolean musicPaused = false;
+
     public void playBackgroundMusic(String path) {
         if (!soundEnabled) return;
 
@@ -14,14 +25,7 @@ public class SoundPlayer {
         stopBackgroundMusic();
 
         try {
-            // Try different path formats
-            URL res = getClass().getResource("/" + path);
-            if (res == null) {
-                res = getClass().getResource("/music/" + path);
-            }
-            if (res == null) {
-                res = getClass().getResource("/src/assets/" + path);
-            }
+            URL res = findResource(path);
             if (res == null) {
                 System.err.println("❌ Could not find audio file: " + path);
                 return;
@@ -29,41 +33,15 @@ public class SoundPlayer {
 
             System.out.println("🔍 Found music at: " + res);
 
-            // Get audio input stream
-            AudioInputStream audioIn = AudioSystem.getAudioInputStream(res);
-            AudioFormat originalFormat = audioIn.getFormat();
-            System.out.println("🎵 Original audio format: " + originalFormat);
-
-            // Convert to a supported PCM format
-            AudioFormat targetFormat = new AudioFormat(
-                    AudioFormat.Encoding.PCM_SIGNED,
-                    originalFormat.getSampleRate() == AudioSystem.NOT_SPECIFIED ? 44100 : originalFormat.getSampleRate(),
-                    16, // 16-bit
-                    originalFormat.getChannels() == AudioSystem.NOT_SPECIFIED ? 2 : originalFormat.getChannels(),
-                    (originalFormat.getChannels() == AudioSystem.NOT_SPECIFIED ? 2 : originalFormat.getChannels()) * 2, // frame size
-                    originalFormat.getSampleRate() == AudioSystem.NOT_SPECIFIED ? 44100 : originalFormat.getSampleRate(),
-                    false // little endian
-            );
-
-            System.out.println("🎵 Target audio format: " + targetFormat);
-
-            // Check if conversion is needed
-            AudioInputStream convertedAudioIn = audioIn;
-            if (!AudioSystem.isConversionSupported(targetFormat, originalFormat)) {
-                System.err.println("❌ Audio conversion not supported");
-                System.err.println("💡 Please convert your audio file to 16-bit PCM WAV format");
-                return;
-            }
-
-            if (!originalFormat.matches(targetFormat)) {
-                convertedAudioIn = AudioSystem.getAudioInputStream(targetFormat, audioIn);
-                System.out.println("🔄 Converting audio format...");
-            }
-
-            // Create and start the clip
-            backgroundClip = AudioSystem.getClip();
-            backgroundClip.open(convertedAudioIn);
-            backgroundClip.loop(Clip.LOOP_CONTINUOUSLY);
+            // Streamed from the file in small chunks and looped without a gap,
+            // so the decoded track never sits in memory
+            if (!openMixer()) return;
+            WavFile wav = mapWav(res);
+            MusicStream stream = wav != null
+                    ? new MusicStream(wav, MusicStream.DEFAULT_CHUNK_FRAMES, true)
+                    : new MusicStream(res, MusicStream.DEFAULT_CHUNK_FRAMES, true);
+            musicHandle = mixer.playStream(stream, isMuted ? 0f : 1f, 0f);
+            musicPaused = false;
             isPlaying = true; // Mark as playing
             System.out.println("✅ Background music started successfully");
 
@@ -78,6 +56,30 @@ public class SoundPlayer {
         }
     }
 
+    // Try different path formats
+    private URL findResource(String path) {
+        URL res = getClass().getResource("/" + path);
+        if (res == null) {
+            res = getClass().getResource("/music/" + path);
+        }
+        if (res == null) {
+            res = getClass().getResource("/src/assets/" + path);
+        }
+        return res;
+    }
+
+    // Mapped as it is, or converted once into the audio cache and mapped from there; null means let AudioSystem decode it
+    private WavFile mapWav(URL res) {
+        try {
+            return AudioCache.getInstance().open(res);
+        } catch (UnsupportedAudioFileException e) {
+            return null;
+        } catch (IOException e) {
+            System.err.println("⚠️ Audio cache unavailable, converting music as it plays: " + e.getMessage());
+            return null;
+        }
+    }
+
     private String getSupportedFormats() {
         AudioFileFormat.Type[] types = AudioSystem.getAudioFileTypes();
         StringBuilder sb = new StringBuilder();
@@ -89,69 +91,132 @@ public class SoundPlayer {
     }
 
     public void stopBackgroundMusic() {
-        if (backgroundClip != null) {
-            if (backgroundClip.isRunning()) {
-                backgroundClip.stop();
+        if (musicHandle != 0) {
+            mixer.stop(musicHandle);
+            if (!musicPaused) {
                 System.out.println("🛑 Background music stopped");
             }
-            backgroundClip.close();
-            backgroundClip = null; // Clear the reference
+            musicHandle = 0; // Clear the reference
             isPlaying = false; // Mark as not playing
         }
     }
 
     // NEW METHOD: Check if music is currently playing
     public boolean isPlaying() {
-        return isPlaying && backgroundClip != null && backgroundClip.isRunning();
+        return isPlaying && musicHandle != 0 && !musicPaused;
+    }
+
+    // NEW METHOD: Check if a track is loaded, playing or paused
+    public boolean hasBackgroundMusic() {
+        return musicHandle != 0;
     }
 
     // NEW METHOD: Resume music if it was playing
     public void resumeBackgroundMusic() {
-        if (backgroundClip != null && !backgroundClip.isRunning() && isPlaying) {
-            backgroundClip.loop(Clip.LOOP_CONTINUOUSLY);
+        if (musicHandle != 0 && musicPaused && isPlaying) {
+            mixer.resume(musicHandle);
+            musicPaused = false;
             System.out.println("▶️ Background music resumed");
         }
     }
 
     // NEW METHOD: Pause music without stopping completely
     public void pauseBackgroundMusic() {
-        if (backgroundClip != null && backgroundClip.isRunning()) {
-            backgroundClip.stop();
+        if (musicHandle != 0 && !musicPaused) {
+            mixer.pause(musicHandle);
+            musicPaused = true;
             // Don't set isPlaying to false - we want to remember it was playing
             System.out.println("⏸️ Background music paused");
         }
     }
 
+    // NEW METHOD: Decode effects up front so playing them later is only a trigger
+    public void preloadSoundEffects(String... paths) {
+        for (String path : paths) {
+            loadSoundEffect(path);
+        }
+        openMixer();
+    }
+
     public void playSoundEffect(String path) {
         if (!soundEnabled) return;
 
+        int id = soundBank.idOf(path);
+        if (id < 0) {
+            id = loadSoundEffect(path); // not preloaded: decoded on this first call only
+            if (id < 0) return;
+        }
+        if (openMixer()) {
+            mixer.play(soundBank.getPcm(id), 1f, 0f, false);
+        }
+    }
+
+    // NEW METHOD: Render the synthesized effects ahead of time, so the first click doesn't pay for it
+    public void preloadSynthEffects() {
+        for (Synthesizer.Preset preset : Synthesizer.Preset.values()) {
+            loadSynthEffect(preset);
+        }
+    }
+
+    // NEW METHOD: Play a synthesized effect (click, chime, buzz); rendered once, then only triggered on the mixer
+    public void playSynthEffect(Synthesizer.Preset preset) {
+        if (!soundEnabled) return;
+
+        int id = soundBank.idOf(synthName(preset));
+        if (id < 0) {
+            id = loadSynthEffect(preset);
+            if (id < 0) return;
+        }
+        if (openMixer()) {
+            mixer.play(soundBank.getPcm(id), 1f, 0f, false);
+        }
+    }
+
+    private int loadSynthEffect(Synthesizer.Preset preset) {
+        byte[] pcm = Synthesizer.render(preset);
+        AudioFormat format = SoundBank.FORMAT;
         try {
-            URL res = getClass().getResource("/" + path);
-            if (res == null) {
-                res = getClass().getResource("/music/" + path);
-            }
-            if (res == null) {
-                res = getClass().getResource("/src/assets/" + path);
-            }
-            if (res == null) {
-                System.err.println("❌ Could not find sound effect: " + path);
-                return;
-            }
+            return soundBank.load(synthName(preset), new AudioInputStream(new ByteArrayInputStream(pcm), format,
+                    pcm.length / format.getFrameSize()));
+        } catch (IOException e) {
+            System.err.println("❌ Error rendering sound effect: " + e.getMessage());
+            return -1;
+        }
+    }
 
-            AudioInputStream audioIn = AudioSystem.getAudioInputStream(res);
-            Clip clip = AudioSystem.getClip();
-            clip.open(audioIn);
-            clip.start();
+    private static String synthName(Synthesizer.Preset preset) {
+        return "synth/" + preset.name().toLowerCase();
+    }
 
-            // Clean up after sound finishes
-            clip.addLineListener(event -> {
-                if (event.getType() == LineEvent.Type.STOP) {
-                    clip.close();
-                }
-            });
+    private int loadSoundEffect(String path) {
+        if (missingEffects.contains(path)) return -1;
 
+        URL res = findResource(path);
+        if (res == null) {
+            System.err.println("❌ Could not find sound effect: " + path);
+            missingEffects.add(path);
+            return -1;
+        }
+        try {
+            return soundBank.load(path, res);
         } catch (Exception e) {
-            System.err.println("❌ Error playing sound effect: " + e.getMessage());
+            System.err.println("❌ Error loading sound effect: " + e.getMessage());
+            missingEffects.add(path);
+            return -1;
+        }
+    }
+
+    // One line for everything; -Demy.audio.buffer=<frames> trades latency for robustness
+    private boolean openMixer() {
+        if (mixer != null) return true;
+        if (mixerUnavailable) return false;
+        try {
+            mixer = SoftwareMixer.open(null, Integer.getInteger("emy.audio.buffer", SoftwareMixer.DEFAULT_BUFFER_FRAMES));
+            return true;
+        } catch (Exception e) {
+            System.err.println("❌ Could not open the audio line: " + e.getMessage());
+            mixerUnavailable = true; // no audio device: stay silent instead of retrying
+            return false;
         }
     }
 
@@ -168,19 +233,8 @@ public class SoundPlayer {
 
     public void toggleMute() {
         isMuted = !isMuted;
-        if (backgroundClip != null && soundEnabled) {
-            try {
-                if (backgroundClip.isControlSupported(FloatControl.Type.MASTER_GAIN)) {
-                    FloatControl volume = (FloatControl) backgroundClip.getControl(FloatControl.Type.MASTER_GAIN);
-                    if (isMuted) {
-                        volume.setValue(volume.getMinimum()); // Mute
-                    } else {
-                        volume.setValue(0); // Reset to normal volume
-                    }
-                }
-            } catch (Exception e) {
-                System.err.println("❌ Error controlling volume: " + e.getMessage());
-            }
+        if (musicHandle != 0 && soundEnabled) {
+            mixer.setGain(musicHandle, isMuted ? 0f : 1f, 0f); // Mute, or back to normal volume
         }
     }
 
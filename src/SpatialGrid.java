@@ -0,0 +1,133 @@
+import java.util.Arrays;
+
+/**
+ * Uniform grid over a fixed area for point lookups among many rectangles.
+ *
+ * Items are small int ids (an index into the caller's array) with a bounding
+ * rectangle. Each item is listed in every cell its rectangle overlaps, so a
+ * point query only looks at the handful of items in one cell no matter how
+ * many there are in total. Moving an item only touches the grid when it
+ * crosses into different cells. Coordinates outside the area are clamped to
+ * the edge cells, which keeps items dragged off the board findable.
+ *
+ * Queries return candidates by bounding rectangle; callers do the exact test.
+ * Nothing allocates once the cells have grown to their working size. Only
+ * used from the EDT.
+ */
+public class SpatialGrid {
+    private static final int INITIAL_CELL_CAPACITY = 4;
+
+    private final int cellSize;
+    private final int columns;
+    private final int rows;
+    private final int[][] cells;
+    private final int[] cellCounts;
+
+    // Cell range each id is currently listed in; minColumn < 0 means absent
+    private int[] minColumn = new int[0];
+    private int[] minRow = new int[0];
+    private int[] maxColumn = new int[0];
+    private int[] maxRow = new int[0];
+
+    public SpatialGrid(int width, int height, int cellSize) {
+        this.cellSize = cellSize;
+        this.columns = Math.max(1, (width + cellSize - 1) / cellSize);
+        this.rows = Math.max(1, (height + cellSize - 1) / cellSize);
+        this.cells = new int[columns * rows][];
+        this.cellCounts = new int[columns * rows];
+    }
+
+    /** Adds the item, or moves it if it is already in the grid. */
+    public void put(int id, int x, int y, int width, int height) {
+        ensureId(id);
+        int c0 = column(x);
+        int r0 = row(y);
+        int c1 = column(x + width - 1);
+        int r1 = row(y + height - 1);
+        if (minColumn[id] == c0 && minRow[id] == r0 && maxColumn[id] == c1 && maxRow[id] == r1) {
+            return; // still in the same cells
+        }
+
+        remove(id);
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                addToCell(r * columns + c, id);
+            }
+        }
+        minColumn[id] = c0;
+        minRow[id] = r0;
+        maxColumn[id] = c1;
+        maxRow[id] = r1;
+    }
+
+    public void remove(int id) {
+        if (id >= minColumn.length || minColumn[id] < 0) return;
+        for (int r = minRow[id]; r <= maxRow[id]; r++) {
+            for (int c = minColumn[id]; c <= maxColumn[id]; c++) {
+                removeFromCell(r * columns + c, id);
+            }
+        }
+        minColumn[id] = -1;
+    }
+
+    public void clear() {
+        Arrays.fill(cellCounts, 0);
+        Arrays.fill(minColumn, -1);
+    }
+
+    /**
+     * Copies the ids whose rectangles may contain the point into out, in no
+     * particular order, and returns how many there are (at most out.length).
+     */
+    public int query(int px, int py, int[] out) {
+        int cell = row(py) * columns + column(px);
+        int count = Math.min(cellCounts[cell], out.length);
+        if (count > 0) {
+            System.arraycopy(cells[cell], 0, out, 0, count);
+        }
+        return count;
+    }
+
+    private int column(int x) {
+        return Math.max(0, Math.min(columns - 1, Math.floorDiv(x, cellSize)));
+    }
+
+    private int row(int y) {
+        return Math.max(0, Math.min(rows - 1, Math.floorDiv(y, cellSize)));
+    }
+
+    private void addToCell(int cell, int id) {
+        int[] items = cells[cell];
+        int count = cellCounts[cell];
+        if (items == null) {
+            items = cells[cell] = new int[INITIAL_CELL_CAPACITY];
+        } else if (count == items.length) {
+            items = cells[cell] = Arrays.copyOf(items, count * 2);
+        }
+        items[count] = id;
+        cellCounts[cell] = count + 1;
+    }
+
+    private void removeFromCell(int cell, int id) {
+        int[] items = cells[cell];
+        int count = cellCounts[cell];
+        for (int i = 0; i < count; i++) {
+            if (items[i] == id) {
+                items[i] = items[count - 1];
+                cellCounts[cell] = count - 1;
+                return;
+            }
+        }
+    }
+
+    private void ensureId(int id) {
+        if (id < minColumn.length) return;
+        int oldLength = minColumn.length;
+        int length = Math.max(id + 1, oldLength * 2);
+        minColumn = Arrays.copyOf(minColumn, length);
+        minRow = Arrays.copyOf(minRow, length);
+        maxColumn = Arrays.copyOf(maxColumn, length);
+        maxRow = Arrays.copyOf(maxRow, length);
+        Arrays.fill(minColumn, oldLength, length, -1);
+    }
+}
@@ -0,0 +1,137 @@
+import javax.sound.sampled.AudioFormat;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Short sound effects synthesized from wavetables instead of loaded from files.
+ *
+ * Each Wave is one cycle precomputed into a table, so a note is a phase
+ * stepping through it with linear interpolation. The square and saw are
+ * built from their first HARMONICS harmonics only, which keeps the high
+ * notes here from aliasing into a harsh fizz. Every note has an ADSR
+ * envelope, and a Preset is a few notes laid out in time. render() turns a
+ * preset into PCM in SoundBank.FORMAT; SoundPlayer does that once per preset
+ * and afterwards only triggers it on the SoftwareMixer, whose one thread
+ * plays every sound.
+ */
+public final class Synthesizer {
+    private static final int TABLE_SIZE = 2048; // power of two
+    private static final int HARMONICS = 15;
+
+    /** One cycle of each waveform, peak 1. */
+    public enum Wave {
+        // Each from its Fourier series: the amplitude of harmonic k
+        SINE(k -> k == 1 ? 1 : 0),
+        TRIANGLE(k -> k % 2 == 0 ? 0 : ((k / 2) % 2 == 0 ? 1.0 : -1.0) / (k * k)),
+        SQUARE(k -> k % 2 == 0 ? 0 : 1.0 / k),
+        SAW(k -> (k % 2 == 0 ? -1.0 : 1.0) / k);
+
+        private final float[] table = new float[TABLE_SIZE + 1]; // the extra sample saves a wrap when interpolating
+
+        Wave(IntToDoubleFunction amplitude) {
+            double peak = 0;
+            double[] cycle = new double[TABLE_SIZE];
+            for (int i = 0; i < TABLE_SIZE; i++) {
+                double phase = 2 * Math.PI * i / TABLE_SIZE;
+                for (int k = 1; k <= HARMONICS; k++) {
+                    cycle[i] += amplitude.applyAsDouble(k) * Math.sin(k * phase);
+                }
+                peak = Math.max(peak, Math.abs(cycle[i]));
+            }
+            for (int i = 0; i < TABLE_SIZE; i++) {
+                table[i] = (float) (cycle[i] / peak);
+            }
+            table[TABLE_SIZE] = table[0];
+        }
+
+        // phase in cycles, 0 to 1
+        private float sample(double phase) {
+            double position = phase * TABLE_SIZE;
+            int index = (int) position;
+            float fraction = (float) (position - index);
+            return table[index] + (table[index + 1] - table[index]) * fraction;
+        }
+    }
+
+    /** Attack, decay and release in seconds; sustain is the level held after the decay, 0 to 1. */
+    public record Envelope(double attack, double decay, double sustain, double release) {
+        // Level t seconds into a note released after hold seconds
+        double level(double t, double hold) {
+            if (t < hold) return held(t);
+            if (release <= 0) return 0;
+            return Math.max(0, held(hold) * (1 - (t - hold) / release));
+        }
+
+        private double held(double t) {
+            if (t < attack) return t / attack;
+            if (t < attack + decay) return 1 - (1 - sustain) * (t - attack) / decay;
+            return sustain;
+        }
+    }
+
+    /** A note starting at start seconds and held for hold, sliding in pitch from one frequency to the other. */
+    public record Note(Wave wave, double fromHz, double toHz, double start, double hold, double gain, Envelope envelope) {
+        double end() {
+            return start + hold + envelope.release();
+        }
+    }
+
+    public enum Preset {
+        // A soft tick for buttons
+        CLICK(new Note(Wave.TRIANGLE, 1500, 1200, 0, 0.021, 0.35, new Envelope(0.001, 0.02, 0, 0.005))),
+        // Two bell tones a major third apart, each with a quiet octave above it, ringing out over their decay
+        CHIME(new Note(Wave.SINE, 1046.5, 1046.5, 0, 0.3, 0.35, new Envelope(0.002, 0.3, 0, 0.05)),
+                new Note(Wave.SINE, 2093, 2093, 0, 0.12, 0.08, new Envelope(0.002, 0.12, 0, 0.02)),
+                new Note(Wave.SINE, 1318.5, 1318.5, 0.09, 0.4, 0.35, new Envelope(0.002, 0.4, 0, 0.05)),
+                new Note(Wave.SINE, 2637, 2637, 0.09, 0.15, 0.08, new Envelope(0.002, 0.15, 0, 0.02))),
+        // Two slightly detuned low tones sagging in pitch, so they beat against each other
+        BUZZ(new Note(Wave.SQUARE, 180, 150, 0, 0.18, 0.18, new Envelope(0.005, 0.05, 0.7, 0.06)),
+                new Note(Wave.SAW, 186, 153, 0, 0.18, 0.14, new Envelope(0.005, 0.05, 0.7, 0.06)));
+
+        private final Note[] notes;
+
+        Preset(Note... notes) {
+            this.notes = notes;
+        }
+
+        public double getSeconds() {
+            double end = 0;
+            for (Note note : notes) {
+                end = Math.max(end, note.end());
+            }
+            return end;
+        }
+    }
+
+    private Synthesizer() {
+    }
+
+    /** The preset as PCM in SoundBank.FORMAT, the same on both channels. */
+    public static byte[] render(Preset preset) {
+        AudioFormat format = SoundBank.FORMAT;
+        float rate = format.getFrameRate();
+        int frames = (int) Math.ceil(preset.getSeconds() * rate);
+        float[] mix = new float[frames];
+
+        for (Note note : preset.notes) {
+            int first = (int) (note.start() * rate);
+            int last = Math.min(frames, (int) Math.ceil(note.end() * rate));
+            double length = note.hold() + note.envelope().release();
+            double phase = 0;
+            for (int f = first; f < last; f++) {
+                double t = (f - first) / rate;
+                double hz = note.fromHz() + (note.toHz() - note.fromHz()) * Math.min(1, t / length);
+                mix[f] += (float) (note.wave().sample(phase) * note.envelope().level(t, note.hold()) * note.gain());
+                phase += hz / rate;
+                phase -= Math.floor(phase);
+            }
+        }
+
+        byte[] pcm = new byte[frames * format.getFrameSize()];
+        for (int f = 0, b = 0; f < frames; f++, b += format.getFrameSize()) {
+            int value = (int) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, mix[f] * Short.MAX_VALUE));
+            pcm[b] = pcm[b + 2] = (byte) value;
+            pcm[b + 1] = pcm[b + 3] = (byte) (value >> 8);
+        }
+        return pcm;
+    }
+}
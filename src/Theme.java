@@ -0,0 +1,92 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared fonts, colors and strokes for the whole app.
+ *
+ * Fonts, Colors and BasicStrokes are immutable, so one instance of each can be
+ * used by every component and paint method instead of building new ones per
+ * frame. Text widths are cached too, so centering a label while painting
+ * doesn't allocate either. Safe to use from any thread: the prewarm worker
+ * measures target labels while it builds a board.
+ */
+public final class Theme {
+    // Fonts
+    public static final Font TITLE_FONT = new Font("Comic Sans MS", Font.BOLD, 32);
+    public static final Font HEADING_FONT = new Font("Comic Sans MS", Font.BOLD, 24);
+    public static final Font SUBHEADING_FONT = new Font("Comic Sans MS", Font.BOLD, 20);
+    public static final Font PLAYFUL_FONT = new Font("Comic Sans MS", Font.BOLD, 18);
+    public static final Font BUTTON_LARGE_FONT = new Font("Arial", Font.BOLD, 18);
+    public static final Font BUTTON_FONT = new Font("Arial", Font.BOLD, 16);
+    public static final Font BUTTON_SMALL_FONT = new Font("Arial", Font.BOLD, 14);
+    public static final Font LABEL_FONT = new Font("Arial", Font.BOLD, 12);
+    public static final Font BODY_FONT = new Font("Arial", Font.PLAIN, 16);
+    public static final Font STATUS_FONT = new Font("Arial", Font.PLAIN, 14);
+    public static final Font CAPTION_FONT = new Font("Arial", Font.ITALIC, 12);
+
+    // Palette
+    public static final Color CORAL = new Color(255, 107, 107);
+    public static final Color PURPLE = new Color(102, 51, 153);
+    public static final Color VIOLET = new Color(156, 39, 176);
+    public static final Color CREAM = new Color(255, 248, 220);
+    public static final Color PINK = new Color(255, 182, 193);
+    public static final Color PEACH = new Color(255, 218, 185);
+    public static final Color GREEN = new Color(76, 175, 80);
+    public static final Color GREEN_DARK = new Color(56, 142, 60);
+    public static final Color ORANGE = new Color(255, 152, 0);
+    public static final Color ORANGE_DARK = new Color(245, 124, 0);
+    public static final Color RED = new Color(244, 67, 54);
+    public static final Color RED_DARK = new Color(211, 47, 47);
+    public static final Color BLUE = new Color(33, 150, 243);
+    public static final Color BLUE_DARK = new Color(25, 118, 210);
+    public static final Color DEEP_ORANGE = new Color(255, 87, 34);
+    public static final Color DEEP_ORANGE_DARK = new Color(230, 74, 25);
+    public static final Color YELLOW = new Color(255, 193, 7);
+    public static final Color TEXT_GRAY = new Color(85, 85, 85);
+    public static final Color TRACK_GRAY = new Color(200, 200, 200);
+    public static final Color TARGET_FILL = new Color(220, 220, 220, 100);
+    public static final Color STATUS_BAR = new Color(255, 107, 107, 100);
+    public static final Color SHADOW = new Color(0, 0, 0, 50);
+    public static final Color FRAME_WHITE = new Color(255, 255, 255, 200);
+
+    // Strokes
+    public static final BasicStroke OUTLINE_STROKE = new BasicStroke(2);
+    public static final BasicStroke BORDER_STROKE = new BasicStroke(3);
+    public static final BasicStroke DASHED_STROKE = new BasicStroke(2, BasicStroke.CAP_BUTT, BasicStroke.JOIN_BEVEL,
+            0, new float[]{5}, 0);
+
+    private static final Map<Font, Map<String, Integer>> widthCache = new ConcurrentHashMap<>();
+
+    private Theme() {
+    }
+
+    /**
+     * Metrics for text drawn with antialiasing on, the way the custom paint code
+     * draws it. Made from a Graphics of its own each call, since a Graphics must
+     * not be shared between threads; keep the result rather than call per frame.
+     */
+    public static FontMetrics metrics(Font font) {
+        Graphics2D g2 = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB).createGraphics();
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        FontMetrics fm = g2.getFontMetrics(font);
+        g2.dispose();
+        return fm;
+    }
+
+    public static int textWidth(Font font, String text) {
+        Map<String, Integer> widths = widthCache.computeIfAbsent(font, f -> new ConcurrentHashMap<>());
+        Integer width = widths.get(text);
+        if (width == null) {
+            width = metrics(font).stringWidth(text);
+            widths.putIfAbsent(text, width);
+        }
+        return width;
+    }
+
+    /** Same color with a different alpha; call once and keep the result, not per frame. */
+    public static Color withAlpha(Color color, int alpha) {
+        return new Color(color.getRed(), color.getGreen(), color.getBlue(), alpha);
+    }
+}
@@ -0,0 +1,185 @@
+/**
+ * Eased movement for anything that can be placed at an (x, y) position.
+ *
+ * All tweens share one registration with the AnimationClock, which the engine
+ * holds only while something is moving. Tween objects come from a fixed pool,
+ * so starting one doesn't allocate, and at most MAX_TWEENS run at once: when
+ * the pool is empty the oldest tween is finished on the spot to make room.
+ * Each target has at most one tween; starting another replaces it. The
+ * listener hears about every step and about the end, with completed set to
+ * false when the tween was cancelled or replaced instead of reaching its end.
+ * All methods must be called on the EDT.
+ */
+public final class TweenEngine implements AnimationClock.Animation {
+
+    /** Maps linear progress 0..1 to eased progress 0..1. */
+    public interface Easing {
+        float ease(float t);
+    }
+
+    public static final Easing LINEAR = t -> t;
+    public static final Easing EASE_OUT_CUBIC = t -> {
+        float u = 1 - t;
+        return 1 - u * u * u;
+    };
+    public static final Easing EASE_IN_OUT_QUAD = t -> t < 0.5f ? 2 * t * t : 1 - 2 * (1 - t) * (1 - t);
+
+    /** Something a tween moves. */
+    public interface Target {
+        void setTweenPosition(float x, float y);
+    }
+
+    /** Told about each step and the end of the tweens it started; tag is whatever the caller passed in. */
+    public interface Listener {
+        void tweenStepped(Target target, int tag);
+
+        void tweenFinished(Target target, int tag, boolean completed);
+    }
+
+    public static final int MAX_TWEENS = 64;
+
+    private static final TweenEngine INSTANCE = new TweenEngine();
+
+    private static final class Tween {
+        Target target;
+        Listener listener;
+        int tag;
+        float fromX, fromY, toX, toY;
+        float duration;
+        float elapsed;
+        Easing easing;
+        long startOrder;
+    }
+
+    private final Tween[] pool = new Tween[MAX_TWEENS];
+    private int free = MAX_TWEENS;
+    private final Tween[] active = new Tween[MAX_TWEENS];
+    private int activeCount = 0;
+    private long nextStartOrder = 0;
+
+    private TweenEngine() {
+        for (int i = 0; i < MAX_TWEENS; i++) {
+            pool[i] = new Tween();
+        }
+    }
+
+    public static TweenEngine getInstance() {
+        return INSTANCE;
+    }
+
+    /** Moves target from one position to another over the given time. */
+    public void start(Target target, int tag, float fromX, float fromY, float toX, float toY,
+                      float seconds, Easing easing, Listener listener) {
+        cancel(target);
+        if (free == 0) {
+            finish(oldestIndex(), true);
+        }
+
+        Tween tween = pool[--free];
+        pool[free] = null;
+        tween.target = target;
+        tween.listener = listener;
+        tween.tag = tag;
+        tween.fromX = fromX;
+        tween.fromY = fromY;
+        tween.toX = toX;
+        tween.toY = toY;
+        tween.duration = Math.max(seconds, 0.001f);
+        tween.elapsed = 0;
+        tween.easing = easing;
+        tween.startOrder = nextStartOrder++;
+        active[activeCount++] = tween;
+
+        AnimationClock.getInstance().add(this);
+    }
+
+    /** Stops the target's tween where it is. Returns false if it had none. */
+    public boolean cancel(Target target) {
+        for (int i = 0; i < activeCount; i++) {
+            if (active[i].target == target) {
+                finish(i, false);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Stops every tween the listener started, e.g. when its component goes away. */
+    public void cancelAll(Listener listener) {
+        for (int i = activeCount - 1; i >= 0; i--) {
+            if (active[i].listener == listener) {
+                finish(i, false);
+            }
+        }
+    }
+
+    public boolean isTweening(Target target) {
+        for (int i = 0; i < activeCount; i++) {
+            if (active[i].target == target) return true;
+        }
+        return false;
+    }
+
+    public int getActiveCount() {
+        return activeCount;
+    }
+
+    // Tweens waiting in the pool; with the active ones they always add up to MAX_TWEENS
+    int getPooledCount() {
+        return free;
+    }
+
+    @Override
+    public boolean tick(float dt) {
+        // Backwards, so finishing one only moves tweens that were already stepped
+        for (int i = activeCount - 1; i >= 0; i--) {
+            if (i >= activeCount) continue; // a listener cancelled others meanwhile
+            Tween tween = active[i];
+            tween.elapsed += dt;
+            if (tween.elapsed >= tween.duration) {
+                finish(i, true);
+                continue;
+            }
+
+            float t = tween.easing.ease(tween.elapsed / tween.duration);
+            tween.target.setTweenPosition(tween.fromX + (tween.toX - tween.fromX) * t,
+                    tween.fromY + (tween.toY - tween.fromY) * t);
+            tween.listener.tweenStepped(tween.target, tween.tag);
+        }
+        return activeCount > 0;
+    }
+
+    // Completed tweens land exactly on their end position before the listener hears about it
+    private void finish(int index, boolean completed) {
+        Tween tween = active[index];
+        active[index] = active[--activeCount];
+        active[activeCount] = null;
+
+        Target target = tween.target;
+        Listener listener = tween.listener;
+        int tag = tween.tag;
+        if (completed) {
+            target.setTweenPosition(tween.toX, tween.toY);
+        }
+
+        tween.target = null;
+        tween.listener = null;
+        tween.easing = null;
+        pool[free++] = tween;
+
+        if (activeCount == 0) {
+            AnimationClock.getInstance().remove(this);
+        }
+        listener.tweenFinished(target, tag, completed);
+    }
+
+    private int oldestIndex() {
+        int oldest = 0;
+        for (int i = 1; i < activeCount; i++) {
+            if (active[i].startOrder < active[oldest].startOrder) {
+                oldest = i;
+            }
+        }
+        return oldest;
+    }
+}
@@ -0,0 +1,216 @@
+import javax.sound.sampled.*;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A PCM WAV file memory-mapped and read in place.
+ *
+ * open() maps the file and walks its RIFF chunks for "fmt " and "data";
+ * frames() is then a read-only, little-endian slice of the mapping holding
+ * exactly the sample frames, so nothing is copied or parsed again. A
+ * resource inside the jar can't be mapped where it is, so it is copied out
+ * to a temporary file the first time it's opened and that copy is mapped
+ * from then on. Anything that isn't uncompressed PCM in a RIFF/WAVE file is
+ * rejected with UnsupportedAudioFileException, and the caller can fall back
+ * to AudioSystem.
+ */
+public final class WavFile {
+    private static final int RIFF = fourCC("RIFF");
+    private static final int WAVE = fourCC("WAVE");
+    private static final int FMT = fourCC("fmt ");
+    private static final int DATA = fourCC("data");
+    private static final int FORMAT_PCM = 1;
+    private static final int FORMAT_EXTENSIBLE = 0xFFFE;
+
+    private static final Map<String, Path> extracted = new HashMap<>(); // resource URL -> temporary copy
+    private static Path extractDir;
+
+    private final Path file;
+    private final MappedByteBuffer mapping;
+    private final AudioFormat format;
+    private final ByteBuffer frames;
+
+    private WavFile(Path file, MappedByteBuffer mapping, AudioFormat format, ByteBuffer frames) {
+        this.file = file;
+        this.mapping = mapping;
+        this.format = format;
+        this.frames = frames;
+    }
+
+    /** Maps a resource, copying it out of the jar first if it isn't a plain file. */
+    public static WavFile open(URL resource) throws IOException, UnsupportedAudioFileException {
+        return map(localFile(resource));
+    }
+
+    public static WavFile map(Path file) throws IOException, UnsupportedAudioFileException {
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new UnsupportedAudioFileException("too large to map: " + file);
+            }
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()); // stays valid after close
+        }
+
+        ByteBuffer riff = mapped.order(ByteOrder.LITTLE_ENDIAN);
+        int end = riff.limit();
+        if (end < 12 || riff.getInt(0) != RIFF || riff.getInt(8) != WAVE) {
+            throw new UnsupportedAudioFileException("not a RIFF/WAVE file: " + file);
+        }
+
+        AudioFormat format = null;
+        int dataStart = -1;
+        int dataLength = 0;
+        int chunk = 12;
+        while (chunk + 8 <= end && (format == null || dataStart < 0)) {
+            int id = riff.getInt(chunk);
+            long size = riff.getInt(chunk + 4) & 0xFFFFFFFFL;
+            int body = chunk + 8;
+            if (id == FMT) {
+                format = parseFormat(riff, body, size, file);
+            } else if (id == DATA) {
+                dataStart = body;
+                dataLength = (int) Math.min(size, end - body); // a file cut short keeps what it has
+            }
+            long next = body + size + (size & 1); // chunks are padded to an even length
+            if (next > end) break;
+            chunk = (int) next;
+        }
+        if (format == null || dataStart < 0) {
+            throw new UnsupportedAudioFileException("no fmt or data chunk: " + file);
+        }
+
+        // Whole frames only, so a line never gets half a sample
+        int whole = dataLength - dataLength % format.getFrameSize();
+        ByteBuffer frames = riff.duplicate().position(dataStart).limit(dataStart + whole).slice()
+                .asReadOnlyBuffer().order(ByteOrder.LITTLE_ENDIAN);
+        return new WavFile(file, mapped, format, frames);
+    }
+
+    private static AudioFormat parseFormat(ByteBuffer riff, int body, long size, Path file)
+            throws UnsupportedAudioFileException {
+        if (size < 16) throw new UnsupportedAudioFileException("fmt chunk too short: " + file);
+        int tag = riff.getShort(body) & 0xFFFF;
+        int channels = riff.getShort(body + 2) & 0xFFFF;
+        int rate = riff.getInt(body + 4);
+        int blockAlign = riff.getShort(body + 12) & 0xFFFF;
+        int bits = riff.getShort(body + 14) & 0xFFFF;
+        if (tag == FORMAT_EXTENSIBLE && size >= 40) {
+            tag = riff.getShort(body + 24) & 0xFFFF; // the sub-format GUID starts with the real tag
+        }
+        if (tag != FORMAT_PCM || channels == 0 || rate <= 0 || bits % 8 != 0 || bits == 0 || bits > 32
+                || blockAlign != channels * bits / 8) {
+            throw new UnsupportedAudioFileException("not plain PCM (format " + tag + ", " + bits + " bit): " + file);
+        }
+        AudioFormat.Encoding encoding = bits == 8 ? AudioFormat.Encoding.PCM_UNSIGNED : AudioFormat.Encoding.PCM_SIGNED;
+        return new AudioFormat(encoding, rate, bits, channels, blockAlign, rate, false);
+    }
+
+    public AudioFormat getFormat() {
+        return format;
+    }
+
+    /** The sample frames: a read-only, little-endian view of the mapping, from index 0 to its limit. */
+    public ByteBuffer frames() {
+        return frames.duplicate().order(ByteOrder.LITTLE_ENDIAN); // duplicate() forgets the byte order
+    }
+
+    public int getFrameCount() {
+        return frames.limit() / format.getFrameSize();
+    }
+
+    /** Reads the whole file into memory now, so a later reader never waits on the disk. */
+    public WavFile load() {
+        mapping.load();
+        return this;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /** The frames as a stream, for AudioSystem to convert; reads straight from the mapping. */
+    public AudioInputStream openStream() {
+        return new AudioInputStream(new BufferInputStream(frames()), format, getFrameCount());
+    }
+
+    private static Path localFile(URL resource) throws IOException {
+        if ("file".equals(resource.getProtocol())) {
+            try {
+                return Paths.get(resource.toURI());
+            } catch (URISyntaxException | IllegalArgumentException e) {
+                throw new IOException("bad file URL: " + resource, e);
+            }
+        }
+
+        synchronized (extracted) {
+            String key = resource.toExternalForm();
+            Path copy = extracted.get(key);
+            if (copy != null && Files.exists(copy)) return copy;
+
+            if (extractDir == null) {
+                extractDir = Files.createTempDirectory("emy-audio");
+                extractDir.toFile().deleteOnExit(); // registered first, so it's deleted after its files
+            }
+            String name = key.substring(key.lastIndexOf('/') + 1);
+            copy = extractDir.resolve(extracted.size() + "-" + name);
+            try (InputStream in = resource.openStream()) {
+                Files.copy(in, copy, StandardCopyOption.REPLACE_EXISTING);
+            }
+            copy.toFile().deleteOnExit();
+            extracted.put(key, copy);
+            System.out.println("📦 Extracted " + name + " for mapping");
+            return copy;
+        }
+    }
+
+    private static int fourCC(String id) {
+        return id.charAt(0) | id.charAt(1) << 8 | id.charAt(2) << 16 | id.charAt(3) << 24;
+    }
+
+    private static final class BufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        BufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) return 0;
+            if (!buffer.hasRemaining()) return -1;
+            int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+
+        @Override
+        public long skip(long n) {
+            int skipped = (int) Math.max(0, Math.min(n, buffer.remaining()));
+            buffer.position(buffer.position() + skipped);
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}